@@ -2,13 +2,17 @@ package fr.uge.backpackhero;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.SplittableRandom;
 import fr.uge.backpackhero.entites.Heros;
 import fr.uge.backpackhero.donjon.Dungeon;
 import fr.uge.backpackhero.donjon.Room;
 import fr.uge.backpackhero.combat.Combat;
+import fr.uge.backpackhero.combat.CombatLog;
 import fr.uge.backpackhero.combat.CombatState;
 import fr.uge.backpackhero.item.ItemInstance;
 import fr.uge.backpackhero.graphics.ViewGraphic;
+import fr.uge.backpackhero.random.RandomStreams;
+import fr.uge.backpackhero.random.RandomStreams.Subsystem;
 
 /**
  * Main controller for the game logic.
@@ -18,6 +22,9 @@ public final class Jeu {
   private final Heros heros;
   private final Dungeon donjon;
   private final ViewGraphic view;
+  private final RandomStreams streams;
+  private final SplittableRandom eventRandom;
+  private final CombatLog combatLog = new CombatLog(1 << 14);
   private Mode modeActuel;
   private Combat combatEnCours;
   private int posX;
@@ -32,6 +39,20 @@ public final class Jeu {
    * @param vg2 secondary view handler (reserved for future use).
    */
   public Jeu(Heros heros, Dungeon donjon, ViewGraphic vg1, ViewGraphic vg2) {
+    this(heros, donjon, vg1, vg2, new RandomStreams());
+  }
+
+  /**
+   * Constructs the game instance of a seeded run.
+   * @param heros the player character.
+   * @param donjon the dungeon structure containing levels.
+   * @param vg1 the primary graphical view handler.
+   * @param vg2 secondary view handler (reserved for future use).
+   * @param streams the random streams of the run, shared with the dungeon generator.
+   */
+  public Jeu(Heros heros, Dungeon donjon, ViewGraphic vg1, ViewGraphic vg2, RandomStreams streams) {
+    this.streams = Objects.requireNonNull(streams);
+    this.eventRandom = streams.split(Subsystem.EVENTS);
     this.heros = Objects.requireNonNull(heros);
     this.donjon = Objects.requireNonNull(donjon);
     this.view = Objects.requireNonNull(vg1);
@@ -97,7 +118,8 @@ public final class Jeu {
    */
   public void lancerCombat(List<fr.uge.backpackhero.entites.Ennemi> enemies) {
     Objects.requireNonNull(enemies);
-    this.combatEnCours = new Combat(heros, enemies, view);
+    this.combatEnCours = new Combat(heros, enemies, view, streams.split(Subsystem.COMBAT), combatLog);
+    combatEnCours.setFloorDepth(donjon.getFloorNumber() - 1);
     this.modeActuel = Mode.COMBAT;
   }
 
@@ -144,5 +166,9 @@ public final class Jeu {
   public int getX() { return posX; }
   public int getY() { return posY; }
   public Heros getHeros() { return heros; }
+  public SplittableRandom getEventRandom() { return eventRandom; }
+  /** @return the seed of the run, to replay it. */
+  public long getSeed() { return streams.seed(); }
+  public CombatLog getCombatLog() { return combatLog; }
   public ViewGraphic getView() { return view; }
 }
\ No newline at end of file
@@ -15,6 +15,8 @@ import fr.uge.backpackhero.item.ItemInstance;
 import fr.uge.backpackhero.item.Position;
 import fr.uge.backpackhero.graphics.GraphicEngine;
 import fr.uge.backpackhero.graphics.ViewGraphic;
+import fr.uge.backpackhero.random.RandomStreams;
+import fr.uge.backpackhero.random.RandomStreams.Subsystem;
 
 /**
  * Entry point for the Backpack Hero application.
@@ -24,22 +26,39 @@ import fr.uge.backpackhero.graphics.ViewGraphic;
 public final class Main {
  
   /**
-   * Main method to start the game.
-   * * @param args command line arguments.
+   * Main method to start the game. The seed of the run is shown in the HUD.
+   * * @param args command line arguments: an optional seed to replay a run.
    * @throws NullPointerException if args is null.
    */
   public static void main(String[] args) {
+    RandomStreams streams = args.length > 0 ? new RandomStreams(parseSeed(args[0])) : new RandomStreams();
     Heros heros = new Heros();
-    Dungeon dungeon = DungeonGenerator.createDungeonPhase3();
-    StuffFactory factory = new StuffFactory();    
+    Dungeon dungeon = DungeonGenerator.createDungeonPhase3(streams);
+    StuffFactory factory = new StuffFactory(streams.split(Subsystem.LOOT));
     ViewGraphic viewGraphic = new ViewGraphic(heros.getBackpack(), heros);
     HallOfFame hof = new HallOfFame();    
-    Jeu jeu = new Jeu(heros, dungeon, viewGraphic, viewGraphic);
+    Jeu jeu = new Jeu(heros, dungeon, viewGraphic, viewGraphic, streams);
     setupInitialInventory(heros, factory);  
     GraphicEngine engine = new GraphicEngine(jeu, viewGraphic, hof);
     engine.start(); 
   }
 
+  /**
+   * Reads the seed given on the command line, or stops with a usage message.
+   *
+   * @param arg the argument to read.
+   * @return the seed.
+   */
+  private static long parseSeed(String arg) {
+    try {
+      return Long.parseLong(arg);
+    } catch (NumberFormatException e) {
+      System.err.println("Invalid seed: " + arg + " (expected a whole number)");
+      System.exit(2);
+      throw new AssertionError(e);
+    }
+  }
+
   /**
    * Adds basic starting equipment to the hero's backpack for testing.
    *
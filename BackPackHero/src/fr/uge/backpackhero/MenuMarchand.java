@@ -5,6 +5,7 @@ import java.util.Scanner;
 import java.util.List;
 import fr.uge.backpackhero.donjon.MerchantRoom;
 import fr.uge.backpackhero.entites.Heros;
+import fr.uge.backpackhero.item.Affixes;
 import fr.uge.backpackhero.item.ItemInstance;
 import fr.uge.backpackhero.item.Position;
 
@@ -51,7 +52,9 @@ public final class MenuMarchand {
     }
     for (int i = 0; i < stock.size(); i++) {
       ItemInstance item = stock.get(i);
-      System.out.println("  [" + i + "] " + item.getName() + " (" + item.getItem().price() + " Gold)");
+      var affixes = Affixes.describe(item.getAffixes());
+      System.out.println("  [" + i + "] " + item.getName() + (affixes.isEmpty() ? "" : " [" + affixes + "]") + " ("
+          + item.effectivePrice() + " Gold)");
     }
   }
 
@@ -76,7 +79,7 @@ public final class MenuMarchand {
       return;
     }
     ItemInstance item = shop.stock().get(index);
-    int price = item.getItem().price();
+    int price = item.effectivePrice();
     if (heros.getGold() < price) {
       System.out.println("Not enough gold!");
       return;
@@ -87,7 +90,7 @@ public final class MenuMarchand {
   private static void executePurchase(Heros heros, MerchantRoom shop, ItemInstance item, int idx, Scanner sc) {
     Position pos = lirePosition(sc, heros);
     if (pos != null && heros.getBackpack().add(item, pos)) {
-      heros.payer(item.getItem().price());
+      heros.payer(item.effectivePrice());
       shop.stock().remove(idx);
       System.out.println("Purchase successful!");
     } else {
@@ -99,7 +102,7 @@ public final class MenuMarchand {
     var items = heros.getBackpack().getItems();
     System.out.println("\n-- SELL -- (X to Cancel)");
     for (int i = 0; i < items.size(); i++) {
-      int sellPrice = items.get(i).getItem().price() / 2;
+      int sellPrice = items.get(i).effectivePrice() / 2;
       System.out.println("  [" + i + "] " + items.get(i).getName() + " (+" + sellPrice + " Gold)");
     }
     System.out.print("> ");
@@ -114,7 +117,7 @@ public final class MenuMarchand {
     if (idx >= 0 && idx < items.size()) {
       ItemInstance toSell = items.get(idx);
       heros.getBackpack().removeItem(toSell);
-      heros.gagnerOr(toSell.getItem().price() / 2);
+      heros.gagnerOr(toSell.effectivePrice() / 2);
       System.out.println("Sold!");
     }
   }
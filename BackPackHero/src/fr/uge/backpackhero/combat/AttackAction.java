@@ -7,7 +7,14 @@ package fr.uge.backpackhero.combat;
  * @param damage The amount of damage points.
  */
 public record AttackAction(int damage) implements EnemyAction {
-  
+  private static final AttackAction[] CACHE = new AttackAction[64];
+
+  static {
+    for (int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new AttackAction(i);
+    }
+  }
+
   /**
    * Compact constructor to validate the damage value.
    *
@@ -20,6 +27,21 @@ public record AttackAction(int damage) implements EnemyAction {
     }
   }
   
+  /**
+   * Returns an attack of the given damage. Small values are interned, so
+   * behaviours announcing them every turn do not allocate.
+   *
+   * @param damage The amount of damage.
+   * @return a shared instance when {@code damage} is small, a new one otherwise.
+   * @throws IllegalArgumentException if the damage is negative.
+   */
+  public static AttackAction of(int damage) {
+    if (damage >= 0 && damage < CACHE.length) {
+      return CACHE[damage];
+    }
+    return new AttackAction(damage);
+  }
+
   /**
    * Returns a human-readable description of the attack action for the UI.
    * * @return A string describing the attack intention.
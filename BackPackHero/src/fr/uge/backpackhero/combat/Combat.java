@@ -3,22 +3,34 @@ package fr.uge.backpackhero.combat;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Objects;
-import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
 
 import fr.uge.backpackhero.entites.Ennemi;
+import fr.uge.backpackhero.entites.EnnemiSnapshot;
 import fr.uge.backpackhero.entites.Heros;
+import fr.uge.backpackhero.item.Curse;
+import fr.uge.backpackhero.item.ItemCatalog;
 import fr.uge.backpackhero.item.ItemInstance;
-import fr.uge.backpackhero.item.StuffFactory;
+import fr.uge.backpackhero.item.LootContext;
+import fr.uge.backpackhero.item.LootTable;
+import fr.uge.backpackhero.item.Stuff;
 
 /**
  * Manages turn-based combat logic between the hero and enemies.
  * It coordinates actions, status effects, and rewards.
  */
 public final class Combat {
+  private static final Effect[] EFFECTS = Effect.values();
+
   private final Heros heros;
-  private final List<Ennemi> enemies;
+  private final EnemyRoster enemies;
   private final CombatInteractionDelegate delegate;
-  private final Random random = new Random();
+  private final CombatLog log;
+  private Set<ItemInstance> cursesBefore;
+  /** Seed of the generator of the rewards, drawn from only when they are. */
+  private long seed;
+  private int floorDepth;
   private boolean isHeroTurn;
 
   /**
@@ -30,28 +42,110 @@ public final class Combat {
    * @throws NullPointerException if any argument is null.
    */
   public Combat(Heros heros, List<Ennemi> listEnemies, CombatInteractionDelegate delegate) {
+    this(heros, listEnemies, delegate, new SplittableRandom());
+  }
+
+  /**
+   * Initializes a combat session drawing its rewards from the given generator.
+   *
+   * @param heros       the hero participant.
+   * @param listEnemies the list of enemies.
+   * @param delegate    the delegate for UI/Forced interactions.
+   * @param random      the generator, usually split from the combat stream of a
+   *                    run.
+   * @throws NullPointerException if any argument is null.
+   */
+  public Combat(Heros heros, List<Ennemi> listEnemies, CombatInteractionDelegate delegate, SplittableRandom random) {
+    this(heros, listEnemies, delegate, random.nextLong(), null, true);
+    start();
+  }
+
+  /**
+   * Initializes a combat session recording its events in a log. The hero and
+   * the enemies record in the log until another combat starts with them.
+   *
+   * @param heros       the hero participant.
+   * @param listEnemies the list of enemies, at most 255.
+   * @param delegate    the delegate for UI/Forced interactions.
+   * @param random      the generator, usually split from the combat stream of a
+   *                    run.
+   * @param log         the log receiving the events of the combat.
+   * @throws NullPointerException     if any argument is null.
+   * @throws IllegalArgumentException if there are more than 255 enemies.
+   */
+  public Combat(Heros heros, List<Ennemi> listEnemies, CombatInteractionDelegate delegate, SplittableRandom random,
+      CombatLog log) {
+    this(heros, loggable(listEnemies), delegate, random.nextLong(), Objects.requireNonNull(log), true);
+    start();
+  }
+
+  /** Checks the enemies before they are attached to a log, which numbers them on a byte. */
+  private static List<Ennemi> loggable(List<Ennemi> listEnemies) {
+    if (listEnemies.size() > 0xFF) {
+      throw new IllegalArgumentException("Too many enemies to log");
+    }
+    return listEnemies;
+  }
+
+  private Combat(Heros heros, List<Ennemi> listEnemies, CombatInteractionDelegate delegate, long seed,
+      CombatLog log, boolean isHeroTurn) {
+    this.seed = seed;
     this.heros = Objects.requireNonNull(heros);
     Objects.requireNonNull(listEnemies);
     this.delegate = Objects.requireNonNull(delegate);
-    if (listEnemies.isEmpty()) {
+    this.log = log;
+    this.isHeroTurn = isHeroTurn;
+    heros.attachLog(log);
+    for (int i = 0; i < listEnemies.size(); i++) {
+      listEnemies.get(i).attachLog(log, i + 1);
+    }
+    this.enemies = new EnemyRoster(listEnemies);
+  }
+
+  private void start() {
+    if (enemies.isEmpty()) {
       throw new IllegalArgumentException("Combat requires at least one enemy");
     }
-    this.enemies = new ArrayList<>(listEnemies);
+    if (log != null) {
+      log.startCombat(enemies.size());
+    }
     startHeroTurn();
   }
 
+  /**
+   * Sets the floor the combat takes place on, which makes the rewards rarer
+   * deeper down. Combats start on floor 0.
+   *
+   * @param floorDepth the floor, numbered from 0.
+   * @throws IllegalArgumentException if {@code floorDepth} is negative.
+   */
+  public void setFloorDepth(int floorDepth) {
+    if (floorDepth < 0) {
+      throw new IllegalArgumentException("Negative depth " + floorDepth);
+    }
+    this.floorDepth = floorDepth;
+  }
+
   /**
    * Starts the hero's turn by resetting energy and planning enemy actions.
    */
   public void startHeroTurn() {
     this.isHeroTurn = true;
+    if (log != null) {
+      log.startTurn();
+    }
     heros.triggerStartTurnEffects();
     if (!heros.estVivant()) {
       return;
     }
     heros.debuterTourCombat();
     heros.rafraichirMana();
-    enemies.stream().filter(Ennemi::estVivant).forEach(Ennemi::choisirProchaineAction);
+    for (int i = 0; i < enemies.size(); i++) {
+      var enemy = enemies.get(i);
+      if (enemy.estVivant()) {
+        enemy.choisirProchaineAction();
+      }
+    }
   }
 
   /**
@@ -67,6 +161,11 @@ public final class Combat {
     if (!isHeroTurn || !heros.estVivant()) {
       return false;
     }
+    if (log != null) {
+      recordCursePlacement();
+      log.record(CombatEvent.ITEM_USE, CombatLog.HERO, CombatLog.packPosition(instance.getPos()),
+          target.getSlot());
+    }
     boolean success = instance.getItem().use(heros, target, heros.getBackpack(), instance);
     if (success && target != null && !target.estVivant()) {
       handleEnemyDefeat(target);
@@ -75,11 +174,12 @@ public final class Combat {
   }
 
   private void handleEnemyDefeat(Ennemi target) {
+    recordDeath(target);
     int levels = heros.gainXp(target.getxpReward());
     if (levels > 0) {
       delegate.handleLevelUpExpansion(levels);
     }
-    enemies.remove(target);
+    enemies.discard(target);
   }
 
   /**
@@ -89,6 +189,10 @@ public final class Combat {
     if (!isHeroTurn) {
       return;
     }
+    if (log != null) {
+      recordCursePlacement();
+      log.record(CombatEvent.TURN_END, CombatLog.HERO, 0, 0);
+    }
     this.isHeroTurn = false;
     heros.triggerEndTurnEffects();
     if (heros.estVivant()) {
@@ -98,11 +202,12 @@ public final class Combat {
   }
 
   private void applyAllEnemiesActions() {
-    for (var enemy : enemies) {
-      if (enemy.estVivant() && heros.estVivant()) {
+    for (int i = 0; i < enemies.size() && heros.estVivant(); i++) {
+      var enemy = enemies.get(i);
+      if (enemy.estVivant()) {
         EnemyAction action = enemy.getActionAnnoncee();
         switch (action) {
-          case CurseAction c -> delegate.handleForcedCurse(heros, c.curse());
+          case CurseAction c -> forceCurse(enemy.getSlot());
           default -> enemy.executerAction(heros);
         }
         enemy.triggerStartTurnEffects();
@@ -110,8 +215,52 @@ public final class Combat {
     }
   }
 
+  private void forceCurse(int slot) {
+    if (log != null) {
+      log.record(CombatEvent.CURSE_FORCED, slot, 0, 0);
+      cursesBefore = Set.copyOf(heros.getBackpack().itemsOfKind(Curse.class));
+    }
+    delegate.handleForcedCurse(heros, (Curse) ItemCatalog.standard().item(Stuff.Curse));
+    if (log != null) {
+      // placed by the delegate right away, or later by the player
+      recordCursePlacement();
+    }
+  }
+
+  /**
+   * Records where the last forced curse was placed, once it is in the backpack.
+   */
+  private void recordCursePlacement() {
+    if (cursesBefore == null) {
+      return;
+    }
+    for (var instance : heros.getBackpack().itemsOfKind(Curse.class)) {
+      if (!cursesBefore.contains(instance)) {
+        log.record(CombatEvent.CURSE_PLACED, CombatLog.HERO, CombatLog.packPosition(instance.getPos()),
+            instance.getRotationAngle());
+        cursesBefore = null;
+        return;
+      }
+    }
+  }
+
+  private void recordDeath(Ennemi enemy) {
+    if (log != null) {
+      log.record(CombatEvent.ENEMY_DEATH, enemy.getSlot(), 0, 0);
+    }
+  }
+
   private void checkEndOfTurnTransition() {
-    enemies.removeIf(e -> !e.estVivant());
+    for (int i = 0; i < enemies.size();) {
+      var enemy = enemies.get(i);
+      if (enemy.estVivant()) {
+        i++;
+      } else {
+        // the last enemy moves to i
+        recordDeath(enemy);
+        enemies.discard(enemy);
+      }
+    }
     if (!enemies.isEmpty() && heros.estVivant()) {
       startHeroTurn();
     }
@@ -123,6 +272,10 @@ public final class Combat {
    * @return the list of reward items.
    */
   public List<ItemInstance> finishCombat() {
+    if (log != null) {
+      recordCursePlacement();
+      log.record(CombatEvent.COMBAT_END, CombatLog.HERO, getState().ordinal(), 0);
+    }
     heros.decrementCursePenaltyDuration();
     if (getState() == CombatState.WIN) {
       int levels = heros.gainXp(10);
@@ -135,15 +288,145 @@ public final class Combat {
   }
 
   private List<ItemInstance> generateRewards() {
-    var factory = new StuffFactory();
+    var random = new SplittableRandom(seed);
+    var loot = random.split();
     var rewards = new ArrayList<ItemInstance>();
     int count = 2 + random.nextInt(2);
     for (int i = 0; i < count; i++) {
-      rewards.add(new ItemInstance(factory.randomItem()));
+      rewards.add(LootTable.standard().drawInstance(LootContext.COMBAT_REWARD, floorDepth, loot));
     }
     return rewards;
   }
 
+  /**
+   * Captures the state of the combat: hero, backpack, enemies with their
+   * intents and status effects, whose turn it is, and the seeds of the random
+   * streams: everything drawn after a restore is what was drawn after the
+   * snapshot. Taking a snapshot changes nothing in the combat.
+   *
+   * @return an immutable snapshot, to restore on this combat.
+   */
+  public CombatSnapshot snapshot() {
+    var alive = enemies.toArray(Ennemi[]::new);
+    var states = new EnnemiSnapshot[alive.length];
+    for (int i = 0; i < alive.length; i++) {
+      states[i] = alive[i].snapshot();
+    }
+    return new CombatSnapshot(this, heros.snapshot(), alive, states, isHeroTurn, seed);
+  }
+
+  /**
+   * Puts the combat back in the state of a snapshot, so that a search can
+   * explore several continuations, or an action be undone. The events already
+   * recorded in the log of the combat are kept.
+   *
+   * @param snapshot a snapshot taken on this combat.
+   * @throws NullPointerException     if {@code snapshot} is null.
+   * @throws IllegalArgumentException if the snapshot was taken on another combat.
+   */
+  public void restore(CombatSnapshot snapshot) {
+    Objects.requireNonNull(snapshot);
+    if (snapshot.combat() != this) {
+      throw new IllegalArgumentException("Snapshot of another combat");
+    }
+    heros.restore(snapshot.heros());
+    var alive = snapshot.enemyArray();
+    var states = snapshot.enemyStates();
+    for (int i = 0; i < alive.length; i++) {
+      alive[i].restore(states[i]);
+    }
+    enemies.reset(alive);
+    isHeroTurn = snapshot.isHeroTurn();
+    seed = snapshot.seed();
+  }
+
+  /**
+   * Creates an independent combat in the same state, with copies of the hero,
+   * of its items and of the enemies, recording no events. Both combats draw the
+   * same random numbers from now on, and forking changes nothing in this
+   * combat. The enemies of the copy are in the same order, in slots numbered
+   * from 1 in that order. A copy can be played on another thread, as long as
+   * this combat is not used while it is being created.
+   *
+   * @param delegate the delegate of the copy.
+   * @return a copy of the combat.
+   * @throws NullPointerException if {@code delegate} is null.
+   */
+  public Combat fork(CombatInteractionDelegate delegate) {
+    Objects.requireNonNull(delegate);
+    var copies = enemies.stream().map(Ennemi::copy).toList();
+    var copy = new Combat(heros.copy(), copies, delegate, seed, null, isHeroTurn);
+    copy.floorDepth = floorDepth;
+    return copy;
+  }
+
+  /**
+   * Restarts the random streams of the combat and of its enemies from a seed.
+   * The state is left unchanged, only the future draws differ, so a search can
+   * sample several futures from one {@link #restore(CombatSnapshot) restored}
+   * position.
+   *
+   * @param seed the new seed.
+   */
+  public void reseed(long seed) {
+    var seeds = new SplittableRandom(seed);
+    this.seed = seeds.nextLong();
+    for (int i = 0; i < enemies.size(); i++) {
+      enemies.get(i).reseed(seeds.nextLong());
+    }
+  }
+
+  /**
+   * Hashes the state of the combat that matters for the rest of the fight: whose
+   * turn it is, the hero health, energy, protection, mana, curse refusal
+   * damage, status effects and backpack layout, and for each enemy its kind,
+   * health, protection, intent and status effects, whatever the order of the
+   * enemies. Equal states have equal hashes whatever the instances, so the hash
+   * can key a transposition table shared by forks of a combat.
+   *
+   * @return a 64-bit hash of the state.
+   */
+  public long stateHash() {
+    long hash = mix(isHeroTurn ? 1 : 2);
+    hash = mix(hash + heros.getPv());
+    hash = mix(hash + heros.getPvMax());
+    hash = mix(hash + heros.getEnergie());
+    hash = mix(hash + heros.getProtection());
+    hash = mix(hash + heros.getMana());
+    hash = mix(hash + heros.getCurseRefusalDamage());
+    for (var effect : EFFECTS) {
+      hash = mix(hash + heros.getStatus(effect));
+    }
+    hash = mix(hash ^ heros.getBackpack().layoutHash());
+    // the roster order changes as enemies die, so the enemy hashes are summed
+    long enemyHashes = 0;
+    for (int i = 0; i < enemies.size(); i++) {
+      enemyHashes += enemyHash(enemies.get(i));
+    }
+    return mix(hash + enemyHashes);
+  }
+
+  private static long enemyHash(Ennemi enemy) {
+    long hash = mix(enemy.getName().hashCode());
+    hash = mix(hash + enemy.getHp());
+    hash = mix(hash + enemy.getProtection());
+    var action = enemy.getActionAnnoncee();
+    // the kind is hashed apart: records of different kinds can have equal hash codes
+    hash = mix(hash + (action == null ? 0 : action.getClass().getName().hashCode()));
+    hash = mix(hash + Objects.hashCode(action));
+    for (var effect : EFFECTS) {
+      hash = mix(hash + enemy.getStatus(effect));
+    }
+    return hash;
+  }
+
+  /** SplitMix64 finalizer. */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
   /**
    * Evaluates the current combat status.
    *
@@ -156,8 +439,30 @@ public final class Combat {
     return enemies.isEmpty() ? CombatState.WIN : CombatState.IN_PROGRESS;
   }
 
+  public Heros getHeros() {
+    return heros;
+  }
+
+  /**
+   * Returns the enemies still in the combat, as a read-only view that follows
+   * the combat: nothing is copied, so the view is meant to be read right away.
+   * When an enemy dies, the last one takes its place in the view.
+   *
+   * @return the live view of the enemies.
+   */
   public List<Ennemi> getAliveEnemies() {
-    return List.copyOf(enemies);
+    return enemies;
+  }
+
+  /**
+   * Returns the enemy of a {@link Ennemi#getSlot() slot}, which unlike its
+   * place in {@link #getAliveEnemies()} does not change as enemies die.
+   *
+   * @param slot the slot of the enemy, from 1.
+   * @return the enemy, or null if it is dead or the slot is unknown.
+   */
+  public Ennemi getAliveEnemy(int slot) {
+    return enemies.inSlot(slot);
   }
 
   public boolean isHeroTurn() {
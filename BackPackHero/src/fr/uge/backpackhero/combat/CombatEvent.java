@@ -0,0 +1,51 @@
+package fr.uge.backpackhero.combat;
+
+/**
+ * Kinds of the events recorded in a {@link CombatLog}. Each event has a
+ * subject ({@link CombatLog#HERO} or an enemy slot) and two 16-bit operands
+ * whose meaning depends on the kind.
+ */
+public enum CombatEvent {
+  /** A combat starts; a is the number of enemies. */
+  COMBAT_START,
+  /** A hero turn starts. */
+  TURN_START,
+  /** An enemy announces its intent; a is the kind and effect, b the amount. */
+  INTENT,
+  /** The hero uses an item; a is the anchor of the item, b the targeted slot. */
+  ITEM_USE,
+  /** The hero ends the turn. */
+  TURN_END,
+  /** The subject takes damage; a is the health lost, b the damage absorbed by protection. */
+  DAMAGE,
+  /** The subject dodges a hit, spending a charge for the hero. */
+  DODGE,
+  /** The subject gains protection; a is the amount. */
+  PROTECTION,
+  /** The subject heals; a is the health regained. */
+  HEAL,
+  /** The subject receives a status effect; a is the effect, b the stacks. */
+  STATUS_APPLIED,
+  /** A status effect of the subject acts at the end of a turn; a is the effect, b the amount. */
+  STATUS_TICKED,
+  /** An enemy forces a curse on the hero. */
+  CURSE_FORCED,
+  /** The hero accepts a curse. */
+  CURSE_ACCEPTED,
+  /** The hero refuses a curse; a is the damage taken for it. */
+  CURSE_REFUSED,
+  /** An accepted curse is in the backpack; a is its anchor, b its rotation in degrees. */
+  CURSE_PLACED,
+  /** The subject enemy dies. */
+  ENEMY_DEATH,
+  /** The hero gains experience; a is the amount, b the levels gained. */
+  XP_GAIN,
+  /** The combat is finished; a is the ordinal of the final {@link CombatState}. */
+  COMBAT_END;
+
+  private static final CombatEvent[] VALUES = values();
+
+  static CombatEvent of(int ordinal) {
+    return VALUES[ordinal];
+  }
+}
@@ -0,0 +1,283 @@
+package fr.uge.backpackhero.combat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import fr.uge.backpackhero.item.Position;
+
+/**
+ * Records the events of combats in a preallocated ring buffer, one
+ * {@code long} per event, so that recording allocates nothing and costs a few
+ * stores. When the buffer is full, the oldest events are overwritten.
+ * <p>
+ * An event packs its {@link CombatEvent kind} in bits 56-63, its subject in
+ * bits 48-55 ({@link #HERO}, or the slot of an enemy: its rank in the list the
+ * combat was created with, plus one), the hero turn in bits 32-47 and two
+ * unsigned 16-bit operands in bits 16-31 and 0-15. The static accessors decode
+ * them.
+ * </p>
+ * <p>
+ * A log is filled by a {@link Combat} and by the hero and enemies it is
+ * attached to, on the thread playing the combat; it is not thread-safe.
+ * </p>
+ */
+public final class CombatLog {
+  /** Subject of the events concerning the hero. */
+  public static final int HERO = 0;
+
+  private static final int ATTACK = 0;
+  private static final int PROTECT = 1;
+  private static final int STATUS = 2;
+  private static final int CURSE = 3;
+  private static final Effect[] EFFECTS = Effect.values();
+
+  private final long[] events;
+  private final int mask;
+  private long count;
+  private int turn;
+
+  /**
+   * Creates an empty log.
+   *
+   * @param capacity the number of events kept, rounded up to a power of two.
+   * @throws IllegalArgumentException if {@code capacity} is not positive or too
+   *                                  large.
+   */
+  public CombatLog(int capacity) {
+    if (capacity <= 0 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Invalid capacity " + capacity);
+    }
+    int length = Integer.highestOneBit(capacity);
+    this.events = new long[length == capacity ? length : length << 1];
+    this.mask = events.length - 1;
+  }
+
+  /**
+   * Records an event of the current turn. Operands are truncated to 16 bits.
+   *
+   * @param type    the kind of event.
+   * @param subject {@link #HERO} or an enemy slot.
+   * @param a       the first operand.
+   * @param b       the second operand.
+   */
+  public void record(CombatEvent type, int subject, int a, int b) {
+    events[(int) count++ & mask] = pack(type, subject, turn, a, b);
+  }
+
+  /**
+   * Records the intent announced by an enemy.
+   *
+   * @param subject the slot of the enemy.
+   * @param action  the non-null intent.
+   */
+  public void recordIntent(int subject, EnemyAction action) {
+    switch (action) {
+      case AttackAction atk -> record(CombatEvent.INTENT, subject, ATTACK << 8, atk.damage());
+      case ProtectAction prot -> record(CombatEvent.INTENT, subject, PROTECT << 8, prot.amount());
+      case StatusEffectAction sea -> record(CombatEvent.INTENT, subject, STATUS << 8 | sea.effect().ordinal(),
+          sea.stacks());
+      case CurseAction c -> record(CombatEvent.INTENT, subject, CURSE << 8, 0);
+    }
+  }
+
+  void startCombat(int enemies) {
+    turn = 0;
+    record(CombatEvent.COMBAT_START, HERO, enemies, 0);
+  }
+
+  void startTurn() {
+    turn++;
+    record(CombatEvent.TURN_START, HERO, 0, 0);
+  }
+
+  /**
+   * @return the number of events kept, at most the capacity.
+   */
+  public int size() {
+    return (int) Math.min(count, events.length);
+  }
+
+  /**
+   * @return the number of events recorded since the creation of the log.
+   */
+  public long total() {
+    return count;
+  }
+
+  /**
+   * @return the number of events the log can keep.
+   */
+  public int capacity() {
+    return events.length;
+  }
+
+  /**
+   * Returns a kept event.
+   *
+   * @param index the index of the event, 0 being the oldest kept.
+   * @return the packed event.
+   * @throws IndexOutOfBoundsException if the index is not below {@link #size()}.
+   */
+  public long get(int index) {
+    Objects.checkIndex(index, size());
+    return events[(int) (count - size() + index) & mask];
+  }
+
+  /**
+   * @return the kept events, oldest first.
+   */
+  public long[] toArray() {
+    var array = new long[size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = get(i);
+    }
+    return array;
+  }
+
+  /**
+   * Appends packed events, for instance read back from a file.
+   *
+   * @param packed the events, oldest first.
+   */
+  public void addAll(long[] packed) {
+    for (var event : packed) {
+      events[(int) count++ & mask] = event;
+    }
+  }
+
+  /**
+   * Splits the kept events into combats, each one starting with its
+   * {@link CombatEvent#COMBAT_START} event. The events before the first start
+   * kept, whose combat was partly overwritten, are dropped.
+   *
+   * @return the events of each combat, oldest combat first.
+   */
+  public List<long[]> combats() {
+    var all = toArray();
+    var combats = new ArrayList<long[]>();
+    int start = -1;
+    for (int i = 0; i <= all.length; i++) {
+      if (i == all.length || type(all[i]) == CombatEvent.COMBAT_START) {
+        if (start != -1) {
+          var combat = new long[i - start];
+          System.arraycopy(all, start, combat, 0, combat.length);
+          combats.add(combat);
+        }
+        start = i;
+      }
+    }
+    return combats;
+  }
+
+  /**
+   * Forgets every event.
+   */
+  public void clear() {
+    count = 0;
+    turn = 0;
+  }
+
+  /**
+   * Packs an event.
+   *
+   * @return the packed event.
+   */
+  public static long pack(CombatEvent type, int subject, int turn, int a, int b) {
+    return (long) type.ordinal() << 56 | (long) (subject & 0xFF) << 48 | (long) (turn & 0xFFFF) << 32
+        | (long) (a & 0xFFFF) << 16 | b & 0xFFFF;
+  }
+
+  /**
+   * @return the kind of a packed event.
+   */
+  public static CombatEvent type(long event) {
+    return CombatEvent.of((int) (event >>> 56));
+  }
+
+  /**
+   * @return the subject of a packed event.
+   */
+  public static int subject(long event) {
+    return (int) (event >>> 48) & 0xFF;
+  }
+
+  /**
+   * @return the hero turn of a packed event.
+   */
+  public static int turn(long event) {
+    return (int) (event >>> 32) & 0xFFFF;
+  }
+
+  /**
+   * @return the first operand of a packed event.
+   */
+  public static int a(long event) {
+    return (int) (event >>> 16) & 0xFFFF;
+  }
+
+  /**
+   * @return the second operand of a packed event.
+   */
+  public static int b(long event) {
+    return (int) event & 0xFFFF;
+  }
+
+  /**
+   * Packs a backpack position in a 16-bit operand, row and column as signed
+   * bytes.
+   *
+   * @return the packed position.
+   */
+  public static int packPosition(Position pos) {
+    return (pos.row() & 0xFF) << 8 | pos.column() & 0xFF;
+  }
+
+  /**
+   * @return the position packed in an operand by {@link #packPosition(Position)}.
+   */
+  public static Position unpackPosition(int operand) {
+    return new Position((byte) (operand >>> 8), (byte) operand);
+  }
+
+  /**
+   * Decodes the intent of an {@link CombatEvent#INTENT} event.
+   *
+   * @return the intent.
+   * @throws IllegalArgumentException if the event is not a valid intent.
+   */
+  static EnemyAction intentOf(long event) {
+    if (type(event) != CombatEvent.INTENT) {
+      throw new IllegalArgumentException("Not an intent");
+    }
+    int a = a(event);
+    int amount = b(event);
+    return switch (a >>> 8) {
+      case ATTACK -> AttackAction.of(amount);
+      case PROTECT -> ProtectAction.of(amount);
+      case STATUS -> new StatusEffectAction(EFFECTS[a & 0xFF], amount);
+      case CURSE -> CurseAction.INSTANCE;
+      default -> throw new IllegalArgumentException("Unknown intent " + a);
+    };
+  }
+
+  /**
+   * Describes a packed event in a readable form.
+   *
+   * @return the description.
+   */
+  public static String describe(long event) {
+    var type = type(event);
+    int subject = subject(event);
+    return "turn " + turn(event) + " " + (subject == HERO ? "hero" : "enemy " + subject) + " " + type + switch (type) {
+      case INTENT -> " " + intentOf(event).description();
+      case ITEM_USE -> " " + unpackPosition(a(event)) + " -> enemy " + b(event);
+      case CURSE_PLACED -> " " + unpackPosition(a(event)) + " " + b(event);
+      case STATUS_APPLIED, STATUS_TICKED -> " " + EFFECTS[a(event)] + " " + b(event);
+      case COMBAT_START, PROTECTION, HEAL, CURSE_REFUSED -> " " + a(event);
+      case DAMAGE, XP_GAIN -> " " + a(event) + " " + b(event);
+      case COMBAT_END -> " " + CombatState.values()[a(event)];
+      default -> "";
+    };
+  }
+}
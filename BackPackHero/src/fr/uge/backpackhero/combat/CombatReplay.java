@@ -0,0 +1,255 @@
+package fr.uge.backpackhero.combat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+import fr.uge.backpackhero.entites.Ennemi;
+import fr.uge.backpackhero.entites.Heros;
+import fr.uge.backpackhero.item.Curse;
+import fr.uge.backpackhero.item.ItemInstance;
+import fr.uge.backpackhero.item.Placements;
+
+/**
+ * Plays a combat again from its {@link CombatLog log}, to find where a combat
+ * stops behaving as it did.
+ * <p>
+ * The log holds the inputs of the combat: the intents drawn by the enemies,
+ * the items used by the hero with their targets, the ends of turn and the
+ * decisions on the forced curses. The replay feeds them to a new combat
+ * between the same hero and enemies, records the events of that combat and
+ * compares them with the logged ones. Events that differ point to a desync:
+ * the rules, the items or the starting state are not what they were.
+ * </p>
+ */
+public final class CombatReplay {
+
+  private CombatReplay() {
+  }
+
+  /**
+   * Result of a replay.
+   *
+   * @param combat     the replayed combat, in its final state.
+   * @param events     the events recorded by the replayed combat.
+   * @param divergence the index of the first event that differs from the
+   *                   logged ones, or -1 if the replay is faithful.
+   */
+  public record Result(Combat combat, long[] events, int divergence) {
+
+    /**
+     * @throws NullPointerException if {@code combat} or {@code events} is null.
+     */
+    public Result {
+      Objects.requireNonNull(combat);
+      events = events.clone();
+    }
+
+    @Override
+    public long[] events() {
+      return events.clone();
+    }
+
+    /**
+     * @return true if the replay recorded the logged events.
+     */
+    public boolean isFaithful() {
+      return divergence == -1;
+    }
+  }
+
+  /**
+   * Replays one combat of a log, as returned by {@link CombatLog#combats()}.
+   *
+   * @param events  the events of the combat, starting with its
+   *                {@link CombatEvent#COMBAT_START}.
+   * @param heros   the hero, in its state at the start of the combat; it is
+   *                modified by the replay.
+   * @param enemies the enemies the combat was created with, in the same order;
+   *                only their name, health and reward are used.
+   * @return the result of the replay.
+   * @throws IllegalArgumentException if the events do not start the combat, or
+   *                                  not with this number of enemies.
+   */
+  public static Result replay(long[] events, Heros heros, List<Ennemi> enemies) {
+    Objects.requireNonNull(events);
+    Objects.requireNonNull(heros);
+    Objects.requireNonNull(enemies);
+    if (events.length == 0 || CombatLog.type(events[0]) != CombatEvent.COMBAT_START
+        || CombatLog.a(events[0]) != enemies.size()) {
+      throw new IllegalArgumentException("The events do not start a combat with " + enemies.size() + " enemies");
+    }
+    var actors = new ArrayList<Ennemi>(enemies.size());
+    for (int i = 0; i < enemies.size(); i++) {
+      var enemy = enemies.get(i);
+      actors.add(new Ennemi(enemy.getName(), enemy.getMaxHp(), enemy.getxpReward(),
+          new ScriptedBehavior(intents(events, i + 1), 0)));
+    }
+    var decisions = new CurseDecisions(events, heros);
+    var log = new CombatLog(2 * events.length + 64);
+    var combat = new Combat(heros, actors, decisions, new SplittableRandom(0), log);
+    // once the replay has recorded more events than logged, it has diverged
+    for (int i = 1; i < events.length && log.total() <= events.length; i++) {
+      if (!apply(events[i], i, combat, heros, actors, decisions)) {
+        break;
+      }
+    }
+    var replayed = log.toArray();
+    return new Result(combat, replayed, divergence(events, replayed));
+  }
+
+  private static boolean apply(long event, int index, Combat combat, Heros heros, List<Ennemi> actors,
+      CurseDecisions decisions) {
+    switch (CombatLog.type(event)) {
+      case ITEM_USE -> {
+        var item = itemAt(heros, CombatLog.a(event));
+        int slot = CombatLog.b(event);
+        if (item == null || slot < 1 || slot > actors.size()) {
+          return false;
+        }
+        combat.tryHeroAction(item, actors.get(slot - 1));
+      }
+      case TURN_END -> combat.startEnemyTurn();
+      case COMBAT_END -> combat.finishCombat();
+      case CURSE_REFUSED, CURSE_PLACED -> decisions.applyLater(index);
+      default -> {
+        // an outcome, compared at the end
+      }
+    }
+    return true;
+  }
+
+  private static ItemInstance itemAt(Heros heros, int position) {
+    var pos = CombatLog.unpackPosition(position);
+    for (var instance : heros.getBackpack().itemsView()) {
+      if (pos.equals(instance.getPos())) {
+        return instance;
+      }
+    }
+    return null;
+  }
+
+  private static long[] intents(long[] events, int slot) {
+    return Arrays.stream(events)
+        .filter(e -> CombatLog.type(e) == CombatEvent.INTENT && CombatLog.subject(e) == slot)
+        .toArray();
+  }
+
+  private static int divergence(long[] expected, long[] actual) {
+    int length = Math.min(expected.length, actual.length);
+    for (int i = 0; i < length; i++) {
+      if (expected[i] != actual[i]) {
+        return i;
+      }
+    }
+    return expected.length == actual.length ? -1 : length;
+  }
+
+  /**
+   * Decides the forced curses as logged. A decision logged right after its
+   * curse was made by the delegate during the enemy turn; any other one was
+   * made later by the player, and is applied at its place in the log.
+   */
+  private static final class CurseDecisions implements CombatInteractionDelegate {
+    private final long[] events;
+    private final Heros heros;
+    private final int[] immediate;
+    private int forced;
+    private Curse pending;
+
+    private CurseDecisions(long[] events, Heros heros) {
+      this.events = events;
+      this.heros = heros;
+      var immediate = new ArrayList<Integer>();
+      for (int i = 0; i < events.length; i++) {
+        if (CombatLog.type(events[i]) == CombatEvent.CURSE_FORCED) {
+          int next = i + 1;
+          while (next < events.length && CombatLog.type(events[next]) == CombatEvent.CURSE_ACCEPTED) {
+            next++;
+          }
+          immediate.add(next < events.length && isDecision(events[next]) ? next : -1);
+        }
+      }
+      this.immediate = immediate.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static boolean isDecision(long event) {
+      var type = CombatLog.type(event);
+      return type == CombatEvent.CURSE_REFUSED || type == CombatEvent.CURSE_PLACED;
+    }
+
+    @Override
+    public void handleForcedCurse(Heros heros, Curse curse) {
+      int index = forced < immediate.length ? immediate[forced] : -1;
+      forced++;
+      pending = curse;
+      if (index != -1) {
+        decide(index);
+      }
+    }
+
+    private void applyLater(int index) {
+      if (Arrays.stream(immediate).noneMatch(i -> i == index)) {
+        decide(index);
+      }
+    }
+
+    private void decide(int index) {
+      var event = events[index];
+      if (CombatLog.type(event) == CombatEvent.CURSE_REFUSED) {
+        heros.refuseCurseImmediate();
+      } else if (pending != null) {
+        var pos = CombatLog.unpackPosition(CombatLog.a(event));
+        var placement = Placements.encode(CombatLog.b(event) / 90, pos.row(), pos.column());
+        if (heros.getBackpack().add(new ItemInstance(pending), placement)) {
+          heros.acceptCurseImmediate();
+        }
+      }
+      pending = null;
+    }
+
+    @Override
+    public void handleLevelUpExpansion(int levelsGained) {
+      // the tiles unlocked by the player are not logged
+    }
+  }
+
+  /** Announces the logged intents of one enemy, in order. */
+  private static final class ScriptedBehavior implements EnemyBehavior {
+    private final long[] intents;
+    private int next;
+
+    private ScriptedBehavior(long[] intents, int next) {
+      this.intents = intents;
+      this.next = next;
+    }
+
+    @Override
+    public EnemyAction chooseAction() {
+      if (next == intents.length) {
+        // the log ends here: anything will do
+        return ProtectAction.of(0);
+      }
+      return CombatLog.intentOf(intents[next++]);
+    }
+
+    @Override
+    public long checkpoint() {
+      return next;
+    }
+
+    @Override
+    public void rewind(long checkpoint) {
+      next = (int) Math.min(Math.max(checkpoint, 0), intents.length);
+    }
+
+    @Override
+    public EnemyBehavior copy(long checkpoint) {
+      var copy = new ScriptedBehavior(intents, 0);
+      copy.rewind(checkpoint);
+      return copy;
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package fr.uge.backpackhero.combat;
+
+import java.util.List;
+
+import fr.uge.backpackhero.entites.Ennemi;
+import fr.uge.backpackhero.entites.EnnemiSnapshot;
+import fr.uge.backpackhero.entites.HerosSnapshot;
+
+/**
+ * Immutable state of a running {@link Combat}, taken with
+ * {@link Combat#snapshot()} and restored with
+ * {@link Combat#restore(CombatSnapshot)} on the same combat. It holds the
+ * snapshots of the hero and of the enemies still in the fight, whose turn it is,
+ * and a seed the random streams of the combat restart from.
+ */
+public final class CombatSnapshot {
+  private final Combat combat;
+  private final HerosSnapshot heros;
+  private final Ennemi[] enemies;
+  private final EnnemiSnapshot[] enemyStates;
+  private final boolean heroTurn;
+  private final long seed;
+
+  CombatSnapshot(Combat combat, HerosSnapshot heros, Ennemi[] enemies, EnnemiSnapshot[] enemyStates,
+      boolean heroTurn, long seed) {
+    this.combat = combat;
+    this.heros = heros;
+    this.enemies = enemies;
+    this.enemyStates = enemyStates;
+    this.heroTurn = heroTurn;
+    this.seed = seed;
+  }
+
+  /** @return the state of the hero. */
+  public HerosSnapshot heros() {
+    return heros;
+  }
+
+  /** @return the enemies still in the fight, in combat order. */
+  public List<Ennemi> enemies() {
+    return List.of(enemies);
+  }
+
+  /**
+   * @return the state of an enemy, in the order of {@link #enemies()}.
+   */
+  public EnnemiSnapshot enemyState(int index) {
+    return enemyStates[index];
+  }
+
+  /** @return {@code true} if the snapshot was taken during the hero turn. */
+  public boolean isHeroTurn() {
+    return heroTurn;
+  }
+
+  Combat combat() {
+    return combat;
+  }
+
+  Ennemi[] enemyArray() {
+    return enemies;
+  }
+
+  EnnemiSnapshot[] enemyStates() {
+    return enemyStates;
+  }
+
+  long seed() {
+    return seed;
+  }
+}
@@ -1,25 +1,16 @@
 package fr.uge.backpackhero.combat;
 
-import java.util.Objects;
-
-import fr.uge.backpackhero.item.Curse;
-
 /**
  * Represents the intention to inflict a curse.
- * Stores the specific curse object that the enemy wants to give to the hero.
- *
- * @param curse The curse object to be inflicted.
+ * The curse item itself is only created by the {@link Combat} when the action
+ * resolves, so announcing a curse costs nothing: behaviours return the shared
+ * {@link #INSTANCE}.
  */
-public record CurseAction(Curse curse) implements EnemyAction {
-  
-  /**
-   * Compact constructor to validate that the curse is not null.
-   * * @param curse The curse object.
-   */
-  public CurseAction {  
-    Objects.requireNonNull(curse);
-  }
-  
+public record CurseAction() implements EnemyAction {
+
+  /** The shared curse intent. */
+  public static final CurseAction INSTANCE = new CurseAction();
+
   /**
    * Provides a human-readable description of the curse action for the UI.
    *
@@ -29,4 +20,4 @@ public record CurseAction(Curse curse) implements EnemyAction {
   public String description() {
     return "Malediction ";
   }
-}
\ No newline at end of file
+}
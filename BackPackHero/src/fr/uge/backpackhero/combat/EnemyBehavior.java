@@ -1,5 +1,7 @@
 package fr.uge.backpackhero.combat;
 
+import java.util.Objects;
+
 import fr.uge.backpackhero.entites.Ennemi;
 import fr.uge.backpackhero.entites.Heros;
 
@@ -16,13 +18,57 @@ public interface EnemyBehavior {
    * @return The action object (the message) that will be announced.
    */
   EnemyAction chooseAction();
+
+  /**
+   * Marks the current point of the random stream of the behavior, so that
+   * {@link #rewind(long)} can replay the intents drawn from there. Taking a
+   * checkpoint does not change the intents drawn afterwards. Behaviors without
+   * randomness keep the default implementation.
+   *
+   * @return a value to give back to {@link #rewind(long)}.
+   */
+  default long checkpoint() {
+    return 0L;
+  }
+
+  /**
+   * Restarts the random stream of the behavior from a checkpoint. Any value is
+   * accepted, so a search can also use it to draw another future.
+   *
+   * @param checkpoint a value returned by {@link #checkpoint()}, or a new seed.
+   */
+  default void rewind(long checkpoint) {
+    // no state by default
+  }
+
+  /**
+   * Creates an independent behavior of the same kind whose random stream
+   * starts at a checkpoint, for a copy of the enemy.
+   *
+   * @param checkpoint a value returned by {@link #checkpoint()}.
+   * @return a new behavior, sharing nothing mutable with this one.
+   */
+  EnemyBehavior copy(long checkpoint);
   
   /**
-   * Executes the action that had been previously announced.
+   * Executes the action that had been previously announced. The default
+   * implementation resolves every kind of action the same way for all enemies;
+   * curses are placed by the {@link Combat}, not by the behavior.
    *
    * @param action The action to execute.
    * @param owner  The enemy that executes the action.
    * @param target The target of the action (usually the Hero).
+   * @throws IllegalStateException if the action is a curse.
    */
-  void executeAction(EnemyAction action, Ennemi owner, Heros target);
+  default void executeAction(EnemyAction action, Ennemi owner, Heros target) {
+    Objects.requireNonNull(action);
+    Objects.requireNonNull(owner);
+    Objects.requireNonNull(target);
+    switch (action) {
+      case AttackAction atk -> target.recevoirDegats(atk.damage());
+      case ProtectAction prot -> owner.gagnerProtection(prot.amount());
+      case StatusEffectAction sea -> target.addEffect(sea.effect(), sea.stacks());
+      case CurseAction c -> throw new IllegalStateException("Curses are handled by the combat loop");
+    }
+  }
 }
\ No newline at end of file
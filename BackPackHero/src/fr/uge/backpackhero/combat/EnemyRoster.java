@@ -0,0 +1,107 @@
+package fr.uge.backpackhero.combat;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import fr.uge.backpackhero.entites.Ennemi;
+
+/**
+ * The enemies alive in a combat, in a dense array. An enemy is found by its
+ * {@link Ennemi#getSlot() slot}, so removing it costs a swap with the last
+ * enemy instead of a shift of the following ones: the order of the enemies
+ * changes as they die. The roster is also a read-only list view, which lets
+ * the combat hand its enemies out without copying them.
+ */
+final class EnemyRoster extends AbstractList<Ennemi> implements RandomAccess {
+  private final Ennemi[] bySlot;
+  private final int[] positions;
+  private final Ennemi[] alive;
+  private int size;
+
+  /**
+   * Creates a roster of enemies whose slots are their rank in the list plus
+   * one.
+   */
+  EnemyRoster(List<Ennemi> enemies) {
+    this.bySlot = enemies.toArray(Ennemi[]::new);
+    this.positions = new int[bySlot.length];
+    this.alive = new Ennemi[bySlot.length];
+    for (int i = 0; i < bySlot.length; i++) {
+      if (bySlot[i].getSlot() != i + 1) {
+        throw new IllegalArgumentException("Enemy " + i + " is not in slot " + (i + 1));
+      }
+      alive[i] = bySlot[i];
+      positions[i] = i;
+    }
+    this.size = bySlot.length;
+  }
+
+  @Override
+  public Ennemi get(int index) {
+    return alive[Objects.checkIndex(index, size)];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the enemy of a slot if it is still in the roster.
+   *
+   * @return the enemy, or null if the slot is unknown or its enemy was removed.
+   */
+  Ennemi inSlot(int slot) {
+    if (slot < 1 || slot > bySlot.length) {
+      return null;
+    }
+    var enemy = bySlot[slot - 1];
+    int position = positions[slot - 1];
+    return position < size && alive[position] == enemy ? enemy : null;
+  }
+
+  /**
+   * Removes an enemy, the last one taking its place.
+   *
+   * @return true if the enemy was in the roster.
+   */
+  boolean discard(Ennemi enemy) {
+    int slot = enemy.getSlot() - 1;
+    if (slot < 0 || slot >= bySlot.length || bySlot[slot] != enemy) {
+      return false;
+    }
+    int position = positions[slot];
+    if (position >= size || alive[position] != enemy) {
+      return false;
+    }
+    var last = alive[--size];
+    alive[position] = last;
+    positions[last.getSlot() - 1] = position;
+    alive[size] = null;
+    modCount++;
+    return true;
+  }
+
+  /**
+   * Puts back the enemies of a snapshot, in order.
+   *
+   * @param enemies enemies of this roster.
+   */
+  void reset(Ennemi[] enemies) {
+    size = 0;
+    for (var enemy : enemies) {
+      int slot = enemy.getSlot() - 1;
+      if (slot < 0 || slot >= bySlot.length || bySlot[slot] != enemy) {
+        throw new IllegalArgumentException(enemy.getName() + " is not in this combat");
+      }
+      positions[slot] = size;
+      alive[size++] = enemy;
+    }
+    for (int i = size; i < alive.length; i++) {
+      alive[i] = null;
+    }
+    modCount++;
+  }
+}
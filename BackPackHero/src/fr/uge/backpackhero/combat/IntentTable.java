@@ -0,0 +1,81 @@
+package fr.uge.backpackhero.combat;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+import fr.uge.backpackhero.random.AliasTable;
+
+/**
+ * Distribution of the intents of an enemy archetype: every action it can
+ * announce with its probability. The actions are interned when the table is
+ * built and drawn with an {@link AliasTable}, so choosing an intent takes
+ * constant time and allocates nothing. A table is immutable and shared by all
+ * the enemies of an archetype.
+ */
+public final class IntentTable {
+  private final EnemyAction[] actions;
+  private final AliasTable alias;
+
+  /**
+   * Builds a table from actions and their weights.
+   *
+   * @param actions the possible intents
+   * @param weights the weight of each intent, in the same order
+   * @throws IllegalArgumentException if the lists have different sizes, are
+   *                                  empty, or the weights are invalid
+   */
+  public IntentTable(List<? extends EnemyAction> actions, double[] weights) {
+    Objects.requireNonNull(actions);
+    Objects.requireNonNull(weights);
+    if (actions.size() != weights.length) {
+      throw new IllegalArgumentException(actions.size() + " actions for " + weights.length + " weights");
+    }
+    this.actions = actions.toArray(EnemyAction[]::new);
+    this.alias = new AliasTable(weights);
+  }
+
+  /**
+   * @return the number of possible intents.
+   */
+  public int size() {
+    return actions.length;
+  }
+
+  /**
+   * @return the intent at an index of the table.
+   */
+  public EnemyAction action(int index) {
+    Objects.checkIndex(index, actions.length);
+    return actions[index];
+  }
+
+  /**
+   * @return the probability of the intent at an index of the table.
+   */
+  public double probability(int index) {
+    return alias.probability(index);
+  }
+
+  /**
+   * Draws an intent.
+   *
+   * @param random the generator of the enemy
+   * @return one of the actions of the table
+   */
+  public EnemyAction sample(SplittableRandom random) {
+    Objects.requireNonNull(random);
+    return actions[alias.sample(random)];
+  }
+
+  /**
+   * Draws an intent from 64 uniform random bits, allocating nothing.
+   *
+   * @param bits uniformly distributed bits
+   * @return one of the actions of the table
+   * @see AliasTable#sample(long)
+   */
+  public EnemyAction sample(long bits) {
+    return actions[alias.sample(bits)];
+  }
+}
@@ -7,7 +7,14 @@ package fr.uge.backpackhero.combat;
  * @param amount The quantity of protection (block) gained.
  */
 public record ProtectAction(int amount) implements EnemyAction {
-  
+  private static final ProtectAction[] CACHE = new ProtectAction[64];
+
+  static {
+    for (int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new ProtectAction(i);
+    }
+  }
+
   /**
    * Compact constructor to validate that the protection amount is not negative.
    *
@@ -20,6 +27,21 @@ public record ProtectAction(int amount) implements EnemyAction {
     }
   }
   
+  /**
+   * Returns a protection of the given amount. Small values are interned, so
+   * behaviours announcing them every turn do not allocate.
+   *
+   * @param amount The quantity of protection.
+   * @return a shared instance when {@code amount} is small, a new one otherwise.
+   * @throws IllegalArgumentException if the amount is negative.
+   */
+  public static ProtectAction of(int amount) {
+    if (amount >= 0 && amount < CACHE.length) {
+      return CACHE[amount];
+    }
+    return new ProtectAction(amount);
+  }
+
   /**
    * Provides a human-readable description of the protection action for the interface.
    *
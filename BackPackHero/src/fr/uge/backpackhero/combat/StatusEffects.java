@@ -0,0 +1,109 @@
+package fr.uge.backpackhero.combat;
+
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Stacks of status effects carried by a fighter. Stacks are stored in an array
+ * indexed by {@link Effect#ordinal()} and the effects with a non-zero total are
+ * tracked in a bitmask, so reading or adding stacks is O(1) and the end of turn
+ * decay and the iteration only visit the stored effects.
+ * <p>
+ * Totals are signed: removing more stacks than an effect has stores a negative
+ * total, which the next decay clears, as an effect with at most 0 stacks.
+ * </p>
+ */
+public final class StatusEffects {
+  private static final Effect[] EFFECTS = Effect.values();
+
+  private final int[] stacks = new int[EFFECTS.length];
+  private int stored;
+
+  /**
+   * Returns the stacks of an effect.
+   *
+   * @param effect the effect
+   * @return the signed number of stacks, 0 if the effect is not stored
+   */
+  public int get(Effect effect) {
+    return stacks[effect.ordinal()];
+  }
+
+  /**
+   * Adds stacks to an effect. A negative amount removes stacks and may leave a
+   * negative total.
+   *
+   * @param effect the effect
+   * @param amount the number of stacks to add
+   * @throws NullPointerException if {@code effect} is {@code null}
+   */
+  public void add(Effect effect, int amount) {
+    Objects.requireNonNull(effect);
+    int index = effect.ordinal();
+    int value = stacks[index] + amount;
+    stacks[index] = value;
+    if (value != 0) {
+      stored |= 1 << index;
+    } else {
+      stored &= ~(1 << index);
+    }
+  }
+
+  /**
+   * Removes one stack of every stored effect, at the end of a turn, and clears
+   * the effects left with 0 stacks or less.
+   */
+  public void tick() {
+    for (int bits = stored; bits != 0; bits &= bits - 1) {
+      int index = Integer.numberOfTrailingZeros(bits);
+      if (--stacks[index] <= 0) {
+        stacks[index] = 0;
+        stored &= ~(1 << index);
+      }
+    }
+  }
+
+  /**
+   * Visits the active effects, those with at least one stack, in declaration
+   * order with their stacks.
+   *
+   * @param action the action receiving each effect and its stacks
+   */
+  public void forEachActive(ObjIntConsumer<Effect> action) {
+    Objects.requireNonNull(action);
+    for (int bits = stored; bits != 0; bits &= bits - 1) {
+      int index = Integer.numberOfTrailingZeros(bits);
+      if (stacks[index] > 0) {
+        action.accept(EFFECTS[index], stacks[index]);
+      }
+    }
+  }
+
+  /**
+   * @return a copy of these stacks, independent from this table.
+   */
+  public StatusEffects copy() {
+    var copy = new StatusEffects();
+    copy.copyFrom(this);
+    return copy;
+  }
+
+  /**
+   * Replaces these stacks by the stacks of another table.
+   *
+   * @param other the table to copy
+   * @throws NullPointerException if {@code other} is {@code null}
+   */
+  public void copyFrom(StatusEffects other) {
+    Objects.requireNonNull(other);
+    System.arraycopy(other.stacks, 0, stacks, 0, stacks.length);
+    stored = other.stored;
+  }
+
+  /**
+   * @return {@code true} if no effect has stacks, positive or negative.
+   */
+  public boolean isEmpty() {
+    return stored == 0;
+  }
+}
@@ -0,0 +1,73 @@
+package fr.uge.backpackhero.combat;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Behavior of an enemy described by data: each turn, an intent is drawn from
+ * the {@link IntentTable} of its archetype, and it is resolved by the shared
+ * {@link EnemyBehavior#executeAction}.
+ */
+public final class TableBehavior implements EnemyBehavior {
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  private final IntentTable intents;
+
+  /** State of the SplitMix64 stream of the intents, so it can be read back. */
+  private long seed;
+
+  /**
+   * Creates the behavior of one enemy.
+   *
+   * @param intents the intents of the archetype
+   * @param rnd     the generator, usually split from the enemy stream of a run
+   * @throws NullPointerException if an argument is {@code null}
+   */
+  public TableBehavior(IntentTable intents, SplittableRandom rnd) {
+    this(intents, rnd.nextLong());
+  }
+
+  private TableBehavior(IntentTable intents, long seed) {
+    this.intents = Objects.requireNonNull(intents);
+    this.seed = seed;
+  }
+
+  /**
+   * @return the intents this behavior draws from.
+   */
+  public IntentTable intents() {
+    return intents;
+  }
+
+  @Override
+  public EnemyAction chooseAction() {
+    // a SplitMix64 step, so that drawing an intent allocates nothing
+    seed += GOLDEN_GAMMA;
+    return intents.sample(mix(seed));
+  }
+
+  /**
+   * {@inheritDoc} The checkpoint is the state of the stream of intents.
+   */
+  @Override
+  public long checkpoint() {
+    return seed;
+  }
+
+  @Override
+  public void rewind(long checkpoint) {
+    seed = checkpoint;
+  }
+
+  @Override
+  public EnemyBehavior copy(long checkpoint) {
+    return new TableBehavior(intents, checkpoint);
+  }
+
+  /** SplitMix64 finalizer. */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,101 @@
+package fr.uge.backpackhero.data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import fr.uge.backpackhero.combat.CombatEvent;
+import fr.uge.backpackhero.combat.CombatLog;
+
+/**
+ * Saves combat logs for offline analysis: in a compact binary form, which can
+ * be read back to {@link fr.uge.backpackhero.combat.CombatReplay replay} the
+ * combats, or as CSV for spreadsheets and scripts.
+ */
+public final class CombatLogExporter {
+  private static final int MAGIC = 0x4250484C; // "BPHL"
+  private static final int VERSION = 1;
+  private static final int EVENT_KINDS = CombatEvent.values().length;
+
+  private CombatLogExporter() {
+  }
+
+  /**
+   * Writes the kept events of a log: a header (magic number, version, number
+   * of events) followed by the packed events, big-endian.
+   *
+   * @param log  the non-null log.
+   * @param file the file to write.
+   * @throws IOException if the file cannot be written.
+   */
+  public static void writeBinary(CombatLog log, Path file) throws IOException {
+    Objects.requireNonNull(log);
+    Objects.requireNonNull(file);
+    var events = log.toArray();
+    try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+      output.writeInt(MAGIC);
+      output.writeInt(VERSION);
+      output.writeInt(events.length);
+      for (var event : events) {
+        output.writeLong(event);
+      }
+    }
+  }
+
+  /**
+   * Reads a log written by {@link #writeBinary(CombatLog, Path)}.
+   *
+   * @param file the file to read.
+   * @return a log holding the events of the file.
+   * @throws IOException if the file cannot be read or is not a combat log.
+   */
+  public static CombatLog readBinary(Path file) throws IOException {
+    Objects.requireNonNull(file);
+    try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+        throw new IOException(file + " is not a combat log");
+      }
+      int count = input.readInt();
+      if (count < 0 || count > 1 << 30) {
+        throw new IOException("Invalid number of events " + count);
+      }
+      var events = new long[count];
+      for (int i = 0; i < count; i++) {
+        events[i] = input.readLong();
+        if (events[i] >>> 56 >= EVENT_KINDS) {
+          throw new IOException("Invalid event " + Long.toHexString(events[i]));
+        }
+      }
+      var log = new CombatLog(Math.max(count, 1));
+      log.addAll(events);
+      return log;
+    }
+  }
+
+  /**
+   * Writes the kept events of a log as CSV, one decoded event per line.
+   *
+   * @param log  the non-null log.
+   * @param file the file to write.
+   * @throws IOException if the file cannot be written.
+   */
+  public static void writeCsv(CombatLog log, Path file) throws IOException {
+    Objects.requireNonNull(log);
+    Objects.requireNonNull(file);
+    try (var writer = Files.newBufferedWriter(file)) {
+      writer.write("index,turn,event,subject,a,b,description");
+      writer.newLine();
+      for (int i = 0; i < log.size(); i++) {
+        long event = log.get(i);
+        writer.write(i + "," + CombatLog.turn(event) + "," + CombatLog.type(event) + "," + CombatLog.subject(event)
+            + "," + CombatLog.a(event) + "," + CombatLog.b(event) + ",\"" + CombatLog.describe(event) + "\"");
+        writer.newLine();
+      }
+    }
+  }
+}
@@ -1,18 +1,21 @@
 package fr.uge.backpackhero.donjon;
 
 import java.util.*;
-import fr.uge.backpackhero.combat.*;
+import fr.uge.backpackhero.entites.EnemyCatalog;
 import fr.uge.backpackhero.entites.Ennemi;
 import fr.uge.backpackhero.item.ItemInstance;
-import fr.uge.backpackhero.item.Stuff;
-import fr.uge.backpackhero.item.StuffFactory;
+import fr.uge.backpackhero.item.LootContext;
+import fr.uge.backpackhero.item.LootTable;
+import fr.uge.backpackhero.random.RandomStreams;
+import fr.uge.backpackhero.random.RandomStreams.Subsystem;
 
 /**
  * Utility class responsible for generating randomized dungeon structures.
  * It manages the creation of floors, room placement, and content generation.
+ * All random draws come from the {@link RandomStreams} of the run, so a seed
+ * always produces the same dungeon.
  */
 public final class DungeonGenerator {
-  private static final Random RDM = new Random();
   private static final int MAP_ROWS = 5;
   private static final int MAP_COLS = 11;
   private static final int POSITIONS_COUNT = 20;
@@ -24,9 +27,19 @@ public final class DungeonGenerator {
    * @return A new Dungeon instance.
    */
   public static Dungeon createDungeonPhase3() {
+    return createDungeonPhase3(new RandomStreams());
+  }
+
+  /**
+   * Creates a complete dungeon consisting of 3 floors with increasing difficulty.
+   * @param streams The random streams of the run.
+   * @return A new Dungeon instance.
+   */
+  public static Dungeon createDungeonPhase3(RandomStreams streams) {
+    Objects.requireNonNull(streams);
     List<Floor> floors = new ArrayList<>();
     for (int i = 0; i < 3; i++) {
-      floors.add(generateRandomFloor(15 + (i * 15)));
+      floors.add(generateRandomFloor(i, 15 + (i * 15), streams));
     }
     return new Dungeon(floors);
   }
@@ -37,10 +50,37 @@ public final class DungeonGenerator {
    * @return A randomized Floor object.
    */
   public static Floor generateRandomFloor(int difficulty) {
+    return generateRandomFloor(difficulty, new RandomStreams());
+  }
+
+  /**
+   * Generates a single floor with connected rooms based on difficulty.
+   * @param difficulty The difficulty level to determine enemy scaling.
+   * @param streams The random streams of the run.
+   * @return A randomized Floor object.
+   */
+  public static Floor generateRandomFloor(int difficulty, RandomStreams streams) {
+    return generateRandomFloor(0, difficulty, streams);
+  }
+
+  /**
+   * Generates a single floor with connected rooms based on difficulty.
+   * @param depth The floor number, from 0, which makes the loot rarer deeper down.
+   * @param difficulty The difficulty level to determine enemy scaling.
+   * @param streams The random streams of the run.
+   * @return A randomized Floor object.
+   * @throws IllegalArgumentException if the depth is negative.
+   */
+  public static Floor generateRandomFloor(int depth, int difficulty, RandomStreams streams) {
+    Objects.requireNonNull(streams);
+    if (depth < 0) {
+      throw new IllegalArgumentException("Negative depth " + depth);
+    }
+    var rdm = streams.split(Subsystem.DUNGEON);
     Room[][] map = new Room[MAP_ROWS][MAP_COLS];
-    List<PositionInDungeon> positions = generateConnectedPositions(POSITIONS_COUNT);
-    Collections.shuffle(positions);
-    placeSpecialRooms(map, positions, difficulty);
+    List<PositionInDungeon> positions = generateConnectedPositions(POSITIONS_COUNT, rdm);
+    Collections.shuffle(positions, rdm);
+    placeSpecialRooms(map, positions, depth, difficulty, rdm, streams);
     for (var pos : positions) {
       if (map[pos.row()][pos.col()] == null) {
         map[pos.row()][pos.col()] = new Corridor();
@@ -52,14 +92,15 @@ public final class DungeonGenerator {
   /**
    * Creates a connected path of coordinates using a growth algorithm.
    * @param count The number of rooms to generate.
+   * @param rdm The generator of the floor.
    * @return A list of unique connected positions.
    */
-  private static List<PositionInDungeon> generateConnectedPositions(int count) {
+  private static List<PositionInDungeon> generateConnectedPositions(int count, SplittableRandom rdm) {
     List<PositionInDungeon> path = new ArrayList<>();
-    path.add(new PositionInDungeon(RDM.nextInt(MAP_ROWS), RDM.nextInt(MAP_COLS)));
+    path.add(new PositionInDungeon(rdm.nextInt(MAP_ROWS), rdm.nextInt(MAP_COLS)));
     while (path.size() < count) {
-      var current = path.get(RDM.nextInt(path.size()));
-      var next = getRandomNeighbor(current);
+      var current = path.get(rdm.nextInt(path.size()));
+      var next = getRandomNeighbor(current, rdm);
       if (isInside(next) && !path.contains(next)) {
         path.add(next);
       }
@@ -71,26 +112,31 @@ public final class DungeonGenerator {
    * Places mandatory special rooms (Exit, Merchant, Healer, etc.) at specific positions.
    * @param map The room grid.
    * @param pos The available connected positions.
+   * @param depth The floor number, for the loot tables.
    * @param diff The difficulty for enemy generation.
+   * @param rdm The generator of the floor.
+   * @param streams The random streams handing out generators to enemies and loot.
    */
-  private static void placeSpecialRooms(Room[][] map, List<PositionInDungeon> pos, int diff) {
+  private static void placeSpecialRooms(Room[][] map, List<PositionInDungeon> pos, int depth, int diff,
+      SplittableRandom rdm, RandomStreams streams) {
     Objects.requireNonNull(map);
     Objects.requireNonNull(pos);
+    var loot = streams.split(Subsystem.LOOT);
     map[pos.get(1).row()][pos.get(1).col()] = new ExitRoom();
-    map[pos.get(2).row()][pos.get(2).col()] = new EnemyRoom(createRandomEnemies(diff));
-    map[pos.get(3).row()][pos.get(3).col()] = new EnemyRoom(createRandomEnemies(diff + 5));
-    map[pos.get(4).row()][pos.get(4).col()] = new EnemyRoom(createRandomEnemies(diff + 10));
-    map[pos.get(5).row()][pos.get(5).col()] = new MerchantRoom(createShopStock());
+    map[pos.get(2).row()][pos.get(2).col()] = new EnemyRoom(createRandomEnemies(diff, rdm, streams));
+    map[pos.get(3).row()][pos.get(3).col()] = new EnemyRoom(createRandomEnemies(diff + 5, rdm, streams));
+    map[pos.get(4).row()][pos.get(4).col()] = new EnemyRoom(createRandomEnemies(diff + 10, rdm, streams));
+    map[pos.get(5).row()][pos.get(5).col()] = new MerchantRoom(createShopStock(depth, loot));
     map[pos.get(6).row()][pos.get(6).col()] = new HealerRoom();
-    map[pos.get(7).row()][pos.get(7).col()] = new TreasureRoom(createRandomLoot());
-    map[pos.get(8).row()][pos.get(8).col()] = new TreasureRoom(createRandomLoot());
+    map[pos.get(7).row()][pos.get(7).col()] = new TreasureRoom(createRandomLoot(depth, loot, rdm));
+    map[pos.get(8).row()][pos.get(8).col()] = new TreasureRoom(createRandomLoot(depth, loot, rdm));
     map[pos.get(9).row()][pos.get(9).col()] = new EventRoom("Surprise");
-    map[pos.get(10).row()][pos.get(10).col()] = new GateRoom(new TreasureRoom(createRandomLoot()));
+    map[pos.get(10).row()][pos.get(10).col()] = new GateRoom(new TreasureRoom(createRandomLoot(depth, loot, rdm)));
   }
 
-  private static PositionInDungeon getRandomNeighbor(PositionInDungeon p) {
+  private static PositionInDungeon getRandomNeighbor(PositionInDungeon p, SplittableRandom rdm) {
     int[][] dirs = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
-    int[] d = dirs[RDM.nextInt(4)];
+    int[] d = dirs[rdm.nextInt(4)];
     return new PositionInDungeon(p.row() + d[0], p.col() + d[1]);
   }
 
@@ -98,50 +144,38 @@ public final class DungeonGenerator {
     return p.row() >= 0 && p.row() < MAP_ROWS && p.col() >= 0 && p.col() < MAP_COLS;
   }
 
-  private static Ennemi generateRandomEnemyType() {
-    return switch (RDM.nextInt(5)) {
-      case 0 -> new Ennemi("ratloup", 15, 6, new RatLoupBehavior(2, 4, 2, 2));
-      case 1 -> new Ennemi("ratloup", 20, 6, new RatLoupBehavior(3, 5, 3, 5));
-      case 2 -> new Ennemi("frogwizard", 25, 8, new FrogWizardBehavior());
-      case 3 -> new Ennemi("Living_Shadow", 30, 25, new LivingShadowBehavior());
-      default -> new Ennemi("beequeen", 40, 20, new BeeQueenBehavior());
-    };
+  private static Ennemi generateRandomEnemyType(SplittableRandom rdm, RandomStreams streams) {
+    var intents = streams.split(Subsystem.ENEMIES);
+    var archetypes = EnemyCatalog.standard().archetypes();
+    return archetypes.get(rdm.nextInt(archetypes.size())).spawn(intents);
   }
 
-  private static List<Ennemi> createRandomEnemies(int difficultyBase) {
+  private static List<Ennemi> createRandomEnemies(int difficultyBase, SplittableRandom rdm, RandomStreams streams) {
     List<Ennemi> enemies = new ArrayList<>();
-    int count = (difficultyBase > 40 && RDM.nextBoolean()) ? 2 : 1;
+    int count = (difficultyBase > 40 && rdm.nextBoolean()) ? 2 : 1;
     for (int i = 0; i < count; i++) {
-      enemies.add(generateRandomEnemyType());
+      enemies.add(generateRandomEnemyType(rdm, streams));
     }
     if (difficultyBase > 50 && enemies.size() == 1) {
-      return List.of(new Ennemi("beequeen", 40, 20, new BeeQueenBehavior()));
+      return List.of(EnemyCatalog.standard().get("beequeen").spawn(streams.split(Subsystem.ENEMIES)));
     }
     return enemies;
   }
 
-  private static List<ItemInstance> createRandomLoot() {
-    StuffFactory factory = new StuffFactory();
-    List<ItemInstance> loot = new ArrayList<>();
-    int nbItems = 1 + RDM.nextInt(2);
-    Stuff[] allStuff = Stuff.values();
+  private static List<ItemInstance> createRandomLoot(int depth, SplittableRandom loot, SplittableRandom rdm) {
+    List<ItemInstance> items = new ArrayList<>();
+    int nbItems = 1 + rdm.nextInt(2);
     for (int i = 0; i < nbItems; i++) {
-      Stuff randomStuff = allStuff[RDM.nextInt(allStuff.length)];
-      loot.add(new ItemInstance(factory.create(randomStuff)));
+      items.add(LootTable.standard().drawInstance(LootContext.TREASURE, depth, loot));
     }
-    return loot;
+    return items;
   }
 
-  private static List<ItemInstance> createShopStock() {
-    StuffFactory factory = new StuffFactory();
+  private static List<ItemInstance> createShopStock(int depth, SplittableRandom loot) {
     List<ItemInstance> stock = new ArrayList<>();
-    Stuff[] allStuff = Stuff.values();
-    while (stock.size() < 3) {
-      Stuff randomStuff = allStuff[RDM.nextInt(allStuff.length)];
-      if (randomStuff != Stuff.Curse) {
-        stock.add(new ItemInstance(factory.create(randomStuff)));
-      }
+    for (int i = 0; i < 3; i++) {
+      stock.add(LootTable.standard().drawInstance(LootContext.SHOP, depth, loot));
     }
     return stock;
   }
-}
\ No newline at end of file
+}
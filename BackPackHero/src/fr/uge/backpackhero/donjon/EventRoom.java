@@ -2,7 +2,6 @@ package fr.uge.backpackhero.donjon;
 
 import java.awt.Graphics2D;
 import java.util.Objects;
-import java.util.Random;
 import fr.uge.backpackhero.Jeu;
 import fr.uge.backpackhero.graphics.ImageLoader;
 
@@ -13,7 +12,6 @@ import fr.uge.backpackhero.graphics.ImageLoader;
  * @param description A brief text description of the room encounter.
  */
 public record EventRoom(String description) implements Room {
-  private static final Random RDM = new Random();
 
   /**
    * Compact constructor to ensure the description is not null.
@@ -26,11 +24,12 @@ public record EventRoom(String description) implements Room {
   /**
    * Triggers a randomized effect on the hero, such as gaining gold or taking damage.
    * This method ensures game logic is updated and the player is notified via the UI.
+   * The outcome is drawn from the event stream of the run.
    * @param jeu The current game instance. Must not be null.
    */
   public void triggerEffect(Jeu jeu) {
     Objects.requireNonNull(jeu);
-    int chance = RDM.nextInt(3);
+    int chance = jeu.getEventRandom().nextInt(3);
     switch (chance) {
       case 0 -> {
         jeu.getHeros().gagnerOr(10);
@@ -55,9 +55,7 @@ public record GateRoom(Room hiddenRoom) implements Room {
   @Override
   public void onClick(Jeu jeu) {
     Objects.requireNonNull(jeu);
-    Optional<ItemInstance> keyOpt = jeu.getHeros().getBackpack().getItems().stream()
-        .filter(i -> i.getName().equalsIgnoreCase("Key"))
-        .findFirst();
+    Optional<ItemInstance> keyOpt = jeu.getHeros().getBackpack().findFirstByName("Key");
 
     if (keyOpt.isPresent()) {
       unlockAndTrigger(jeu, keyOpt.get());
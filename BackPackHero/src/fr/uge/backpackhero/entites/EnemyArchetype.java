@@ -0,0 +1,45 @@
+package fr.uge.backpackhero.entites;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+import fr.uge.backpackhero.combat.IntentTable;
+import fr.uge.backpackhero.combat.TableBehavior;
+
+/**
+ * A kind of enemy, as described in the enemy catalogue.
+ *
+ * @param id       the unique identifier of the archetype in the catalogue.
+ * @param name     the name of the spawned enemies, also used for their image.
+ * @param pvMax    the maximum health points of the spawned enemies.
+ * @param xpReward the experience points awarded upon defeat.
+ * @param intents  the intents the spawned enemies draw from.
+ */
+public record EnemyArchetype(String id, String name, int pvMax, int xpReward, IntentTable intents) {
+
+  /**
+   * Validates the archetype.
+   *
+   * @throws IllegalArgumentException if the health points are not positive or
+   *                                  the reward is negative.
+   */
+  public EnemyArchetype {
+    Objects.requireNonNull(id);
+    Objects.requireNonNull(name);
+    Objects.requireNonNull(intents);
+    if (pvMax <= 0 || xpReward < 0) {
+      throw new IllegalArgumentException("Invalid stats for " + id);
+    }
+  }
+
+  /**
+   * Creates a new enemy of this archetype.
+   *
+   * @param rnd the generator of its intents, usually split from the enemy
+   *            stream of a run.
+   * @return a new enemy with full health.
+   */
+  public Ennemi spawn(SplittableRandom rnd) {
+    return new Ennemi(name, pvMax, xpReward, new TableBehavior(intents, rnd));
+  }
+}
@@ -0,0 +1,201 @@
+package fr.uge.backpackhero.entites;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+import fr.uge.backpackhero.combat.AttackAction;
+import fr.uge.backpackhero.combat.CurseAction;
+import fr.uge.backpackhero.combat.Effect;
+import fr.uge.backpackhero.combat.EnemyAction;
+import fr.uge.backpackhero.combat.IntentTable;
+import fr.uge.backpackhero.combat.ProtectAction;
+import fr.uge.backpackhero.combat.StatusEffectAction;
+
+/**
+ * The enemy archetypes of the game, read from the {@code enemies.txt} resource.
+ * Each archetype lists weighted intents; a value range is expanded into one
+ * interned action per value, so the compiled {@link IntentTable} draws an
+ * intent in constant time however many actions an enemy has.
+ * <p>
+ * The format is documented at the top of {@code resources/enemies.txt}. Adding
+ * an enemy only requires a new block in that file.
+ * </p>
+ */
+public final class EnemyCatalog {
+  private static final String RESOURCE = "enemies.txt";
+
+  private final Map<String, EnemyArchetype> byId;
+  private final List<EnemyArchetype> archetypes;
+
+  private EnemyCatalog(Map<String, EnemyArchetype> byId) {
+    this.byId = byId;
+    this.archetypes = List.copyOf(byId.values());
+  }
+
+  private static final class Standard {
+    private static final EnemyCatalog INSTANCE = load();
+  }
+
+  /**
+   * Returns the catalogue shipped with the game, loaded on first use.
+   *
+   * @return the standard catalogue.
+   * @throws UncheckedIOException     if the resource cannot be read.
+   * @throws IllegalArgumentException if the resource is malformed.
+   */
+  public static EnemyCatalog standard() {
+    return Standard.INSTANCE;
+  }
+
+  private static EnemyCatalog load() {
+    try {
+      var stream = EnemyCatalog.class.getResourceAsStream("/" + RESOURCE);
+      if (stream != null) {
+        try (var reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+          return parse(reader.lines().toList());
+        }
+      }
+      return parse(Files.readAllLines(Path.of("resources", RESOURCE)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Compiles a catalogue from the lines of a description file.
+   *
+   * @param lines the lines of the file.
+   * @return the compiled catalogue.
+   * @throws IllegalArgumentException if a line is malformed, an identifier is
+   *                                  used twice or an archetype has no intent.
+   */
+  public static EnemyCatalog parse(List<String> lines) {
+    Objects.requireNonNull(lines);
+    var archetypes = new LinkedHashMap<String, EnemyArchetype>();
+    String[] header = null;
+    var actions = new ArrayList<EnemyAction>();
+    var weights = new ArrayList<Double>();
+    for (int i = 0; i < lines.size(); i++) {
+      var line = lines.get(i).strip();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      var tokens = line.split("\\s+");
+      try {
+        if (tokens[0].equals("enemy")) {
+          addArchetype(archetypes, header, actions, weights);
+          if (tokens.length != 5) {
+            throw new IllegalArgumentException("expected: enemy <id> <image> <max hp> <xp reward>");
+          }
+          header = tokens;
+          actions.clear();
+          weights.clear();
+        } else if (header == null) {
+          throw new IllegalArgumentException("intent outside of an enemy");
+        } else {
+          parseIntent(tokens, actions, weights);
+        }
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(RESOURCE + " line " + (i + 1) + ": " + e.getMessage(), e);
+      }
+    }
+    addArchetype(archetypes, header, actions, weights);
+    return new EnemyCatalog(archetypes);
+  }
+
+  private static void parseIntent(String[] tokens, List<EnemyAction> actions, List<Double> weights) {
+    if (tokens.length < 2) {
+      throw new IllegalArgumentException("expected: <weight> <action> ...");
+    }
+    double weight = Double.parseDouble(tokens[0]);
+    if (!(weight > 0)) {
+      throw new IllegalArgumentException("weight must be positive");
+    }
+    switch (tokens[1]) {
+      case "curse" -> {
+        if (tokens.length != 2) {
+          throw new IllegalArgumentException("a curse takes no value");
+        }
+        actions.add(CurseAction.INSTANCE);
+        weights.add(weight);
+      }
+      case "attack" -> addRange(tokens, 2, weight, actions, weights, AttackAction::of);
+      case "protect" -> addRange(tokens, 2, weight, actions, weights, ProtectAction::of);
+      case "status" -> {
+        if (tokens.length < 3) {
+          throw new IllegalArgumentException("expected: <weight> status <effect> <min> [<max>]");
+        }
+        var effect = Effect.valueOf(tokens[2]);
+        addRange(tokens, 3, weight, actions, weights, stacks -> new StatusEffectAction(effect, stacks));
+      }
+      default -> throw new IllegalArgumentException("unknown action " + tokens[1]);
+    }
+  }
+
+  private static void addRange(String[] tokens, int first, double weight, List<EnemyAction> actions,
+      List<Double> weights, IntFunction<EnemyAction> factory) {
+    if (tokens.length != first + 1 && tokens.length != first + 2) {
+      throw new IllegalArgumentException("expected a value or a range after " + tokens[1]);
+    }
+    int min = Integer.parseInt(tokens[first]);
+    int max = tokens.length == first + 2 ? Integer.parseInt(tokens[first + 1]) : min;
+    if (min > max) {
+      throw new IllegalArgumentException("min value cannot exceed max value");
+    }
+    double share = weight / (max - min + 1);
+    for (int value = min; value <= max; value++) {
+      actions.add(factory.apply(value));
+      weights.add(share);
+    }
+  }
+
+  private static void addArchetype(Map<String, EnemyArchetype> archetypes, String[] header, List<EnemyAction> actions,
+      List<Double> weights) {
+    if (header == null) {
+      return;
+    }
+    var id = header[1];
+    if (actions.isEmpty()) {
+      throw new IllegalArgumentException(id + " has no intent");
+    }
+    var table = new IntentTable(actions, weights.stream().mapToDouble(Double::doubleValue).toArray());
+    var archetype = new EnemyArchetype(id, header[2], Integer.parseInt(header[3]), Integer.parseInt(header[4]), table);
+    if (archetypes.putIfAbsent(id, archetype) != null) {
+      throw new IllegalArgumentException("duplicate enemy " + id);
+    }
+  }
+
+  /**
+   * @return the archetypes, in file order.
+   */
+  public List<EnemyArchetype> archetypes() {
+    return archetypes;
+  }
+
+  /**
+   * Finds an archetype by identifier.
+   *
+   * @param id the identifier of the archetype.
+   * @return the archetype.
+   * @throws IllegalArgumentException if no archetype has this identifier.
+   */
+  public EnemyArchetype get(String id) {
+    Objects.requireNonNull(id);
+    var archetype = byId.get(id);
+    if (archetype == null) {
+      throw new IllegalArgumentException("Unknown enemy " + id);
+    }
+    return archetype;
+  }
+}
@@ -1,12 +1,14 @@
 package fr.uge.backpackhero.entites;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
+import java.util.function.ObjIntConsumer;
 
+import fr.uge.backpackhero.combat.CombatEvent;
+import fr.uge.backpackhero.combat.CombatLog;
 import fr.uge.backpackhero.combat.Effect;
 import fr.uge.backpackhero.combat.EnemyAction;
 import fr.uge.backpackhero.combat.EnemyBehavior;
+import fr.uge.backpackhero.combat.StatusEffects;
 
 /**
  * Represents an enemy unit in the dungeon.
@@ -17,10 +19,12 @@ public final class Ennemi {
   private final int pvMax;
   private final int xpReward;
   private final EnemyBehavior behavior;
-  private final Map<Effect, Integer> statusEffects = new HashMap<>();
+  private final StatusEffects statusEffects = new StatusEffects();
   private int pv;
   private int protection;
   private EnemyAction announcedAction;
+  private CombatLog log;
+  private int slot;
 
   /**
    * Constructs a new enemy with specified statistics and behavior.
@@ -49,9 +53,35 @@ public final class Ennemi {
    */
   public EnemyAction choisirProchaineAction() {
     this.announcedAction = behavior.chooseAction();
+    if (log != null) {
+      log.recordIntent(slot, announcedAction);
+    }
     return announcedAction;
   }
   
+  /**
+   * Records the combat events of the enemy in a log, or stops recording them.
+   * The log is not part of the state: snapshots and copies ignore it.
+   *
+   * @param log  the log of the current combat, or null.
+   * @param slot the slot of the enemy in the combat, also the subject of its
+   *             events in the log.
+   */
+  public void attachLog(CombatLog log, int slot) {
+    this.log = log;
+    this.slot = slot;
+  }
+
+  /**
+   * Replaces the announced intent, for tools enumerating the possible intents
+   * instead of drawing them.
+   *
+   * @param action the non-null intent to announce.
+   */
+  public void announce(EnemyAction action) {
+    this.announcedAction = Objects.requireNonNull(action);
+  }
+
   /**
    * Executes the announced action on the specified hero.
    *
@@ -75,11 +105,18 @@ public final class Ennemi {
       throw new IllegalArgumentException("Damage cannot be negative");
     }
     if (getStatus(Effect.DODGE) > 0) {
+      if (log != null) {
+        log.record(CombatEvent.DODGE, slot, 0, 0);
+      }
       return;
     }
     int absorbed = Math.min(amount, this.protection);
+    int before = pv;
     this.protection -= absorbed;
     this.pv = Math.max(0, this.pv - (amount - absorbed));
+    if (log != null && amount > 0) {
+      log.record(CombatEvent.DAMAGE, slot, before - pv, absorbed);
+    }
   }
   
   /**
@@ -92,6 +129,9 @@ public final class Ennemi {
       throw new IllegalArgumentException("Protection cannot be negative");
     }
     this.protection += amount;
+    if (log != null) {
+      log.record(CombatEvent.PROTECTION, slot, amount, 0);
+    }
   }
 
   /**
@@ -102,7 +142,10 @@ public final class Ennemi {
    */
   public void addStatus(Effect effect, int stacks) {
     Objects.requireNonNull(effect);
-    statusEffects.merge(effect, stacks, Integer::sum);
+    statusEffects.add(effect, stacks);
+    if (log != null) {
+      log.record(CombatEvent.STATUS_APPLIED, slot, effect.ordinal(), stacks);
+    }
   }
 
   /**
@@ -113,7 +156,16 @@ public final class Ennemi {
    */
   public int getStatus(Effect effect) {
     Objects.requireNonNull(effect);
-    return statusEffects.getOrDefault(effect, 0);
+    return statusEffects.get(effect);
+  }
+
+  /**
+   * Visits the active status effects with their stack count.
+   *
+   * @param action the non-null action receiving each effect and its stacks.
+   */
+  public void forEachStatus(ObjIntConsumer<Effect> action) {
+    statusEffects.forEachActive(action);
   }
 
   /**
@@ -122,7 +174,11 @@ public final class Ennemi {
   public void triggerStartTurnEffects() {
     int regen = getStatus(Effect.REGEN);
     if (regen > 0) {
+      int before = pv;
       this.pv = Math.min(this.pv + regen, this.pvMax);
+      if (log != null) {
+        log.record(CombatEvent.HEAL, slot, pv - before, 0);
+      }
     }
     recevoirDegats(getStatus(Effect.BURN));
   }
@@ -132,9 +188,60 @@ public final class Ennemi {
    */
   public void triggerEndTurnEffects() {
     int poison = getStatus(Effect.POISON);
+    int before = pv;
     this.pv = Math.max(0, this.pv - poison);
-    statusEffects.replaceAll((e, v) -> v - 1);
-    statusEffects.values().removeIf(v -> v <= 0);
+    if (log != null && poison > 0) {
+      log.record(CombatEvent.STATUS_TICKED, slot, Effect.POISON.ordinal(), before - pv);
+    }
+    statusEffects.tick();
+  }
+
+  /**
+   * Captures the state of the enemy. The random stream of its behavior is
+   * checkpointed without being changed, so the intents drawn after a restore
+   * are the ones drawn after the snapshot.
+   *
+   * @return an immutable snapshot of the enemy.
+   */
+  public EnnemiSnapshot snapshot() {
+    return new EnnemiSnapshot(pv, protection, announcedAction, statusEffects.copy(), behavior.checkpoint());
+  }
+
+  /**
+   * Puts the enemy back in the state of a snapshot.
+   *
+   * @param snapshot the non-null snapshot to restore.
+   */
+  public void restore(EnnemiSnapshot snapshot) {
+    Objects.requireNonNull(snapshot);
+    this.pv = snapshot.hp();
+    this.protection = snapshot.protection();
+    this.announcedAction = snapshot.announcedAction();
+    statusEffects.copyFrom(snapshot.statusEffects());
+    behavior.rewind(snapshot.checkpoint());
+  }
+
+  /**
+   * Creates an independent enemy in the same state, drawing the same intents as
+   * this one from now on.
+   *
+   * @return a copy of the enemy.
+   */
+  public Ennemi copy() {
+    var state = snapshot();
+    var copy = new Ennemi(name, pvMax, xpReward, behavior.copy(state.checkpoint()));
+    copy.restore(state);
+    return copy;
+  }
+
+  /**
+   * Restarts the intent stream of the enemy from a seed, so that a search can
+   * explore another future from the same state.
+   *
+   * @param seed the new seed.
+   */
+  public void reseed(long seed) {
+    behavior.rewind(seed);
   }
 
   /** @return true if health points are above zero. */
@@ -145,4 +252,7 @@ public final class Ennemi {
   public String getName() { return name; }
   public EnemyAction getActionAnnoncee() { return announcedAction; }
   public int getProtection() { return protection; }
+  public EnemyBehavior getBehavior() { return behavior; }
+  /** @return the rank of the enemy in the list its combat was created with, plus one; 0 outside a combat. */
+  public int getSlot() { return slot; }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package fr.uge.backpackhero.entites;
+
+import fr.uge.backpackhero.combat.Effect;
+import fr.uge.backpackhero.combat.EnemyAction;
+import fr.uge.backpackhero.combat.StatusEffects;
+
+/**
+ * Immutable state of an {@link Ennemi}: health, protection, announced intent,
+ * status effects and the point reached in the random stream of its behavior.
+ * Taken with {@link Ennemi#snapshot()} and restored with
+ * {@link Ennemi#restore(EnnemiSnapshot)}.
+ */
+public final class EnnemiSnapshot {
+  private final int pv;
+  private final int protection;
+  private final EnemyAction announcedAction;
+  private final StatusEffects statusEffects;
+  private final long checkpoint;
+
+  EnnemiSnapshot(int pv, int protection, EnemyAction announcedAction, StatusEffects statusEffects, long checkpoint) {
+    this.pv = pv;
+    this.protection = protection;
+    this.announcedAction = announcedAction;
+    this.statusEffects = statusEffects;
+    this.checkpoint = checkpoint;
+  }
+
+  /** @return the health points. */
+  public int hp() {
+    return pv;
+  }
+
+  /** @return the protection points. */
+  public int protection() {
+    return protection;
+  }
+
+  /** @return the announced intent, or null if none. */
+  public EnemyAction announcedAction() {
+    return announcedAction;
+  }
+
+  /** @return the stacks of a status effect. */
+  public int status(Effect effect) {
+    return statusEffects.get(effect);
+  }
+
+  StatusEffects statusEffects() {
+    return statusEffects;
+  }
+
+  long checkpoint() {
+    return checkpoint;
+  }
+}
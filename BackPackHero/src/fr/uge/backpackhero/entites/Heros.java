@@ -1,13 +1,13 @@
 package fr.uge.backpackhero.entites;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
+import fr.uge.backpackhero.combat.CombatEvent;
+import fr.uge.backpackhero.combat.CombatLog;
 import fr.uge.backpackhero.combat.Effect;
+import fr.uge.backpackhero.combat.StatusEffects;
 import fr.uge.backpackhero.item.Armor;
 import fr.uge.backpackhero.item.BackPack;
 import fr.uge.backpackhero.item.ItemInstance;
-import fr.uge.backpackhero.item.Position;
 
 /**
  * Main character class managing health, level progression, inventory, gold
@@ -23,12 +23,13 @@ public final class Heros {
   private int currentLevel;
   private int xpToNextLevel;
   private final BackPack backpack;
-  private final Map<Effect, Integer> statusEffects = new HashMap<>();
+  private final StatusEffects statusEffects = new StatusEffects();
 
   private int cursePenaltyDuration = 0;
   private int hpMaxPenalty = 0;
   private int currentCurseRefusalDamage = 0;
   private int mana;
+  private CombatLog log;
 
   /**
    * Initializes the hero with starting stats (40 HP, 3 Energy).
@@ -43,6 +44,16 @@ public final class Heros {
     this.backpack = new BackPack();
   }
 
+  /**
+   * Records the combat events of the hero in a log, or stops recording them.
+   * The log is not part of the state: snapshots and copies ignore it.
+   *
+   * @param log the log of the current combat, or null.
+   */
+  public void attachLog(CombatLog log) {
+    this.log = log;
+  }
+
   /**
    * Applies a temporary Max HP penalty (20%) when a curse is removed. Lasts for 2
    * combats.
@@ -72,32 +83,19 @@ public final class Heros {
     this.energy = maxEnergy;
     this.protection = 0;
 
-    for (var instance : backpack.getItems()) {
-      if (instance.getItem() instanceof Armor armor) {
-        int totalArmorForItem = armor.stats();
+    for (var instance : backpack.itemsOfKind(Armor.class)) {
+      int totalArmorForItem = instance.effectiveStats();
 
-        int bonus = calculerBonusEspace(instance);
+      int bonus = calculerBonusEspace(instance);
 
-        this.protection += (totalArmorForItem + bonus);
-      }
+      this.protection += (totalArmorForItem + bonus);
     }
   }
 
   private int calculerBonusEspace(ItemInstance instance) {
     int bonus = 0;
-    var positions = backpack.getPositions(instance);
-
-    for (var pos : positions) {
-      int r = pos.row() + 1;
-      while (r < backpack.getHeight()) {
-        Position below = new Position(r, pos.column());
-        if (backpack.getUnlockedTiles().contains(below) && backpack.getItemAt(below).isEmpty()) {
-          bonus++;
-          r++;
-        } else {
-          break;
-        }
-      }
+    for (var pos : backpack.getPositions(instance)) {
+      bonus += backpack.freeCellsBelow(pos);
     }
     return bonus;
   }
@@ -109,21 +107,29 @@ public final class Heros {
    */
   public void recevoirDegats(int damage) {
     if (getStatus(Effect.DODGE) > 0) {
-      statusEffects.merge(Effect.DODGE, -1, Integer::sum);
+      statusEffects.add(Effect.DODGE, -1);
+      if (log != null) {
+        log.record(CombatEvent.DODGE, CombatLog.HERO, 0, 0);
+      }
       return;
     }
 
     int resteADeduire = damage;
+    int absorption = 0;
 
     if (this.protection > 0) {
-      int absorption = Math.min(resteADeduire, this.protection);
+      absorption = Math.min(resteADeduire, this.protection);
       this.protection -= absorption;
       resteADeduire -= absorption;
     }
 
+    int before = hp;
     if (resteADeduire > 0) {
       this.hp = Math.max(0, this.hp - resteADeduire);
     }
+    if (log != null && damage > 0) {
+      log.record(CombatEvent.DAMAGE, CombatLog.HERO, before - hp, absorption);
+    }
   }
 
   /**
@@ -143,6 +149,9 @@ public final class Heros {
       this.xpToNextLevel = this.xpToNextLevel * 3 / 2;
       levels++;
     }
+    if (log != null) {
+      log.record(CombatEvent.XP_GAIN, CombatLog.HERO, amount, levels);
+    }
     return levels;
   }
 
@@ -163,9 +172,61 @@ public final class Heros {
    * Processes end-of-turn status effects like Poison.
    */
   public void triggerEndTurnEffects() {
-    this.hp = Math.max(0, this.hp - getStatus(Effect.POISON));
-    statusEffects.replaceAll((e, v) -> v - 1);
-    statusEffects.values().removeIf(v -> v <= 0);
+    int poison = getStatus(Effect.POISON);
+    int before = hp;
+    this.hp = Math.max(0, this.hp - poison);
+    if (log != null && poison > 0) {
+      log.record(CombatEvent.STATUS_TICKED, CombatLog.HERO, Effect.POISON.ordinal(), before - hp);
+    }
+    statusEffects.tick();
+  }
+
+  /**
+   * Captures the state of the hero, backpack included. The status effects are
+   * copied; the backpack snapshot shares the structures of the backpack.
+   *
+   * @return an immutable snapshot of the hero.
+   */
+  public HerosSnapshot snapshot() {
+    return new HerosSnapshot(hp, maxHp, energy, protection, mana, currentXp, currentLevel, xpToNextLevel,
+        cursePenaltyDuration, hpMaxPenalty, currentCurseRefusalDamage, statusEffects.copy(), backpack.snapshot());
+  }
+
+  /**
+   * Puts the hero back in the state of a snapshot.
+   *
+   * @param snapshot the snapshot to restore.
+   * @throws NullPointerException if {@code snapshot} is null.
+   */
+  public void restore(HerosSnapshot snapshot) {
+    Objects.requireNonNull(snapshot);
+    this.hp = snapshot.hp();
+    this.maxHp = snapshot.maxHp();
+    this.energy = snapshot.energy();
+    this.protection = snapshot.protection();
+    this.mana = snapshot.mana();
+    this.currentXp = snapshot.currentXp();
+    this.currentLevel = snapshot.currentLevel();
+    this.xpToNextLevel = snapshot.xpToNextLevel();
+    this.cursePenaltyDuration = snapshot.cursePenaltyDuration();
+    this.hpMaxPenalty = snapshot.hpMaxPenalty();
+    this.currentCurseRefusalDamage = snapshot.currentCurseRefusalDamage();
+    statusEffects.copyFrom(snapshot.statusEffects());
+    backpack.restore(snapshot.backpack());
+  }
+
+  /**
+   * Creates an independent hero in the same state. The backpack holds new
+   * instances of the same items at the same places, so the copy can be played,
+   * for instance by a search on another thread, without touching this hero.
+   *
+   * @return a copy of the hero.
+   */
+  public Heros copy() {
+    var state = snapshot();
+    var copy = new Heros();
+    copy.restore(state.withBackpack(state.backpack().copyInstances()));
+    return copy;
   }
 
   /**
@@ -174,7 +235,7 @@ public final class Heros {
    * @return final score.
    */
   public int calculateFinalScore() {
-    int itemsValue = backpack.getItems().stream().mapToInt(i -> i.getItem().price()).sum();
+    int itemsValue = backpack.itemsView().stream().mapToInt(ItemInstance::effectivePrice).sum();
     return this.maxHp + itemsValue;
   }
 
@@ -215,6 +276,10 @@ public final class Heros {
     return mana;
   }
 
+  public int getCurseRefusalDamage() {
+    return currentCurseRefusalDamage;
+  }
+
   public boolean estVivant() {
     return hp > 0;
   }
@@ -225,10 +290,16 @@ public final class Heros {
 
   public void acceptCurseImmediate() {
     this.currentCurseRefusalDamage = 0;
+    if (log != null) {
+      log.record(CombatEvent.CURSE_ACCEPTED, CombatLog.HERO, 0, 0);
+    }
   }
 
   public void refuseCurseImmediate() {
     this.currentCurseRefusalDamage++;
+    if (log != null) {
+      log.record(CombatEvent.CURSE_REFUSED, CombatLog.HERO, currentCurseRefusalDamage, 0);
+    }
     recevoirDegats(currentCurseRefusalDamage);
   }
 
@@ -246,15 +317,22 @@ public final class Heros {
 
   public void addEffect(Effect effect, int amount) {
     Objects.requireNonNull(effect);
-    statusEffects.merge(effect, amount, Integer::sum);
+    statusEffects.add(effect, amount);
+    if (log != null) {
+      log.record(CombatEvent.STATUS_APPLIED, CombatLog.HERO, effect.ordinal(), amount);
+    }
   }
 
   public int getStatus(Effect effect) {
-    return statusEffects.getOrDefault(effect, 0);
+    return statusEffects.get(effect);
   }
 
   public void soigner(int val) {
+    int before = hp;
     this.hp = Math.min(maxHp, hp + val);
+    if (log != null) {
+      log.record(CombatEvent.HEAL, CombatLog.HERO, hp - before, 0);
+    }
   }
 
   public void rafraichirMana() {
@@ -263,6 +341,9 @@ public final class Heros {
 
   public void ajouterProtection(int val) {
     this.protection += val;
+    if (log != null) {
+      log.record(CombatEvent.PROTECTION, CombatLog.HERO, val, 0);
+    }
   }
 
   public boolean depenserEnergie(int cost) {
@@ -274,7 +355,11 @@ public final class Heros {
   }
 
   public void takeDamage(int amount) {
+    int before = hp;
     this.hp = Math.max(0, this.hp - amount);
+    if (log != null) {
+      log.record(CombatEvent.DAMAGE, CombatLog.HERO, before - hp, 0);
+    }
 
   }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package fr.uge.backpackhero.entites;
+
+import fr.uge.backpackhero.combat.Effect;
+import fr.uge.backpackhero.combat.StatusEffects;
+import fr.uge.backpackhero.item.BackPackSnapshot;
+
+/**
+ * Immutable state of a {@link Heros}: health, energy, protection, mana,
+ * progression, curse penalties, status effects and backpack. Taken with
+ * {@link Heros#snapshot()} and restored with {@link Heros#restore(HerosSnapshot)}.
+ */
+public final class HerosSnapshot {
+  private final int hp;
+  private final int maxHp;
+  private final int energy;
+  private final int protection;
+  private final int mana;
+  private final int currentXp;
+  private final int currentLevel;
+  private final int xpToNextLevel;
+  private final int cursePenaltyDuration;
+  private final int hpMaxPenalty;
+  private final int currentCurseRefusalDamage;
+  private final StatusEffects statusEffects;
+  private final BackPackSnapshot backpack;
+
+  HerosSnapshot(int hp, int maxHp, int energy, int protection, int mana, int currentXp, int currentLevel,
+      int xpToNextLevel, int cursePenaltyDuration, int hpMaxPenalty, int currentCurseRefusalDamage,
+      StatusEffects statusEffects, BackPackSnapshot backpack) {
+    this.hp = hp;
+    this.maxHp = maxHp;
+    this.energy = energy;
+    this.protection = protection;
+    this.mana = mana;
+    this.currentXp = currentXp;
+    this.currentLevel = currentLevel;
+    this.xpToNextLevel = xpToNextLevel;
+    this.cursePenaltyDuration = cursePenaltyDuration;
+    this.hpMaxPenalty = hpMaxPenalty;
+    this.currentCurseRefusalDamage = currentCurseRefusalDamage;
+    this.statusEffects = statusEffects;
+    this.backpack = backpack;
+  }
+
+  /** @return the health points. */
+  public int hp() {
+    return hp;
+  }
+
+  /** @return the energy left for the turn. */
+  public int energy() {
+    return energy;
+  }
+
+  /** @return the protection points. */
+  public int protection() {
+    return protection;
+  }
+
+  /** @return the stacks of a status effect. */
+  public int status(Effect effect) {
+    return statusEffects.get(effect);
+  }
+
+  /** @return the state of the backpack. */
+  public BackPackSnapshot backpack() {
+    return backpack;
+  }
+
+  int maxHp() {
+    return maxHp;
+  }
+
+  int mana() {
+    return mana;
+  }
+
+  int currentXp() {
+    return currentXp;
+  }
+
+  int currentLevel() {
+    return currentLevel;
+  }
+
+  int xpToNextLevel() {
+    return xpToNextLevel;
+  }
+
+  int cursePenaltyDuration() {
+    return cursePenaltyDuration;
+  }
+
+  int hpMaxPenalty() {
+    return hpMaxPenalty;
+  }
+
+  int currentCurseRefusalDamage() {
+    return currentCurseRefusalDamage;
+  }
+
+  StatusEffects statusEffects() {
+    return statusEffects;
+  }
+
+  /** @return the same state with another backpack. */
+  HerosSnapshot withBackpack(BackPackSnapshot backpack) {
+    return new HerosSnapshot(hp, maxHp, energy, protection, mana, currentXp, currentLevel, xpToNextLevel,
+        cursePenaltyDuration, hpMaxPenalty, currentCurseRefusalDamage, statusEffects, backpack);
+  }
+}
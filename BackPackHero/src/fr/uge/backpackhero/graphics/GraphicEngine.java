@@ -5,6 +5,7 @@ import com.github.forax.zen.Event;
 import fr.uge.backpackhero.Jeu;
 import fr.uge.backpackhero.Mode;
 import fr.uge.backpackhero.combat.Combat;
+import fr.uge.backpackhero.data.CombatLogExporter;
 import fr.uge.backpackhero.data.HallOfFame;
 import fr.uge.backpackhero.data.ScoreEntry;
 import fr.uge.backpackhero.donjon.Floor;
@@ -13,11 +14,15 @@ import fr.uge.backpackhero.donjon.Room;
 import fr.uge.backpackhero.entites.Ennemi;
 import fr.uge.backpackhero.entites.Heros;
 import fr.uge.backpackhero.item.*;
+import fr.uge.backpackhero.simulation.HeroMove;
+import fr.uge.backpackhero.simulation.MctsAgent;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.awt.*;
 import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Main graphical engine for rendering the game world and handling user
@@ -28,6 +33,9 @@ public class GraphicEngine {
   private final ImageLoader img = new ImageLoader();
   private final ViewGraphic viewGraphic;
   private static final int TILE_SIZE = 64;
+  private static final int ENEMY_SIZE = 128;
+  private static final int HORDE_TOP = 60;
+  private static final int HORDE_HEIGHT = 440;
 
   private int mouseX, mouseY;
   private int dungeonStartX, dungeonStartY;
@@ -37,6 +45,15 @@ public class GraphicEngine {
   private int messageTimer = 0;
 
   private final HallOfFame hof;
+  private final MctsAgent agent = new MctsAgent(20_000, 300, Runtime.getRuntime().availableProcessors(), 0L);
+  private PendingSearch search = null;
+
+  /**
+   * A search of the agent running on a worker thread, with the state of the
+   * combat it was started on.
+   */
+  private record PendingSearch(Combat combat, long state, boolean autoBattle, CompletableFuture<HeroMove> move) {
+  }
 
   private boolean scoreSaved = false;
   /**
@@ -111,13 +128,15 @@ public class GraphicEngine {
       scoreSaved = true;
       var h = jeu.getHeros();
       int maxHp = h.getPvMax();     
-      int valeurEquipement = h.getBackpack().getItems().stream()
-          .mapToInt(itemInstance -> itemInstance.getItem().price())
+      int valeurEquipement = h.getBackpack().itemsView().stream()
+          .mapToInt(ItemInstance::effectivePrice)
           .sum();      
       int scoreFinal = maxHp + valeurEquipement;     
       ScoreEntry entry = new ScoreEntry("Bosphore", scoreFinal);
       hof.recordScore(entry); 
     }
+    viewGraphic.update();
+    updateSearch();
   }
 
   private void renderFrame(ApplicationContext context) {
@@ -209,7 +228,7 @@ public class GraphicEngine {
     g.setColor(Color.WHITE);
     g.drawString("BACKPACK", backpackStartX, backpackStartY - 10);
     renderBackpackGrid(g, bp);
-    bp.getItems().forEach(item -> {
+    bp.itemsView().forEach(item -> {
       if (item.getPos() != null) {
         drawItem(g, item, backpackStartX + item.getPos().column() * TILE_SIZE,
             backpackStartY + item.getPos().row() * TILE_SIZE, TILE_SIZE);
@@ -218,33 +237,20 @@ public class GraphicEngine {
     drawBackpackHover(g, bp);
   }
 
-  private void renderEligibleTiles(Graphics2D g, int minR, int maxR, int minC, int maxC, Set<Position> unlocked) {
+  private void renderEligibleTiles(Graphics2D g, Set<Position> frontier) {
     g.setColor(new Color(255, 255, 0, 80));
-    for (int r = minR - 1; r <= maxR + 1; r++) {
-      for (int c = minC - 1; c <= maxC + 1; c++) {
-        Position p = new Position(r, c);
-        if (!unlocked.contains(p) && hasAdjacent(p, unlocked)) {
-          int px = backpackStartX + (c * TILE_SIZE);
-          int py = backpackStartY + (r * TILE_SIZE);
-          g.fillRect(px, py, TILE_SIZE, TILE_SIZE);
-          g.drawRect(px, py, TILE_SIZE, TILE_SIZE);
-        }
-      }
+    for (var p : frontier) {
+      int px = backpackStartX + (p.column() * TILE_SIZE);
+      int py = backpackStartY + (p.row() * TILE_SIZE);
+      g.fillRect(px, py, TILE_SIZE, TILE_SIZE);
+      g.drawRect(px, py, TILE_SIZE, TILE_SIZE);
     }
   }
 
-  private boolean hasAdjacent(Position pos, Set<Position> unlocked) {
-    return unlocked.stream().anyMatch(u -> Math.abs(u.row() - pos.row()) + Math.abs(u.column() - pos.column()) == 1);
-  }
-
   private void renderBackpackGrid(Graphics2D g, BackPack bp) {
     var unlocked = bp.getUnlockedTiles();
-    int minR = unlocked.stream().mapToInt(Position::row).min().orElse(0);
-    int maxR = unlocked.stream().mapToInt(Position::row).max().orElse(0);
-    int minC = unlocked.stream().mapToInt(Position::column).min().orElse(0);
-    int maxC = unlocked.stream().mapToInt(Position::column).max().orElse(0);
-    for (int r = minR; r <= maxR; r++) {
-      for (int c = minC; c <= maxC; c++) {
+    for (int r = bp.getMinRow(); r < bp.getHeight(); r++) {
+      for (int c = bp.getMinColumn(); c < bp.getWidth(); c++) {
         int px = backpackStartX + (c * TILE_SIZE);
         int py = backpackStartY + (r * TILE_SIZE);
         if (unlocked.contains(new Position(r, c))) {
@@ -256,7 +262,7 @@ public class GraphicEngine {
       }
     }
     if (viewGraphic.getMode() == ViewGraphic.InteractionMode.LEVEL_UP)
-      renderEligibleTiles(g, minR, maxR, minC, maxC, unlocked);
+      renderEligibleTiles(g, bp.getUnlockFrontier());
   }
 
   private void drawBackpackHover(Graphics2D g, BackPack bp) {
@@ -317,6 +323,10 @@ public class GraphicEngine {
       g.setColor(Color.CYAN);
       g.drawString("Shield: " + h.getProtection(), 260, 85);
     }
+
+    g.setFont(new Font("Arial", Font.PLAIN, 12));
+    g.setColor(Color.GRAY);
+    g.drawString("Seed: " + jeu.getSeed(), 50, 105);
   }
 
   private void renderControls(Graphics2D g, ScreenInfo info) {
@@ -325,7 +335,7 @@ public class GraphicEngine {
     g.setColor(new Color(0, 0, 0, 180));
     g.fillRoundRect(cx - 350, y - 10, 700, 70, 15, 15);
     g.setColor(Color.WHITE);
-    g.drawString("Move: ZQSD | Inventory: I | Reorganize: O", cx - 300, y + 35);
+    g.drawString("Move: ZQSD | Inventory: I | Reorganize: O | Auto-pack: P | Hint: H | Auto-battle: B | Log: L", cx - 330, y + 35);
   }
 
   private void handleInput(KeyboardEvent kb) {
@@ -342,6 +352,10 @@ public class GraphicEngine {
     case D -> jeu.deplacer(1, 0);
     case I -> jeu.getView().printBackPack();
     case O -> viewGraphic.reorganize();
+    case P -> viewGraphic.autoReorganize();
+    case H -> suggestMove();
+    case B -> autoBattleTurn();
+    case L -> exportCombatLog();
     default -> {
     }
     }
@@ -400,7 +414,7 @@ public class GraphicEngine {
 
   private void effectuerAchat(MerchantRoom merchant, int index) {
     ItemInstance item = merchant.stock().get(index);
-    if (jeu.getHeros().payer(item.getItem().price())) {
+    if (jeu.getHeros().payer(item.effectivePrice())) {
       merchant.stock().remove(index);
       viewGraphic.displayItemFound(item);
       viewGraphic.attemptPlacement(item);
@@ -421,7 +435,7 @@ public class GraphicEngine {
 
   private void procederVente(ItemInstance item) {
     jeu.getHeros().getBackpack().removeItem(item);
-    jeu.getHeros().gagnerOr(item.getItem().price());
+    jeu.getHeros().gagnerOr(item.effectivePrice());
     this.messageFlash = "Item sold!";
     this.messageTimer = 100;
   }
@@ -476,6 +490,78 @@ public class GraphicEngine {
     jeu.updateCombatState();
   }
 
+  private void suggestMove() {
+    startSearch(false);
+  }
+
+  private void autoBattleTurn() {
+    startSearch(true);
+  }
+
+  /**
+   * Starts a search of the agent off the frame thread; its move is used by
+   * {@link #updateSearch()} once found.
+   */
+  private void startSearch(boolean autoBattle) {
+    var combat = jeu.getCombat();
+    if (jeu.getMode() != Mode.COMBAT || combat == null || search != null) {
+      return;
+    }
+    this.search = new PendingSearch(combat, combat.stateHash(), autoBattle, agent.suggestAsync(combat));
+    this.messageFlash = "Thinking...";
+    this.messageTimer = 60;
+  }
+
+  /**
+   * Shows the hint or plays the move of a finished search. Called once per
+   * frame. The move is dropped if the combat went on while it was searched,
+   * and a failed search is reported instead of ending the frame loop.
+   */
+  private void updateSearch() {
+    if (search == null || !search.move().isDone()) {
+      return;
+    }
+    var done = search;
+    this.search = null;
+    if (done.move().isCompletedExceptionally()) {
+      this.messageFlash = "Search failed!";
+      this.messageTimer = 120;
+      return;
+    }
+    var move = done.move().resultNow();
+    var combat = jeu.getCombat();
+    if (jeu.getMode() != Mode.COMBAT || combat != done.combat() || combat.stateHash() != done.state()) {
+      return;
+    }
+    if (!done.autoBattle()) {
+      this.messageFlash = "Hint: " + move;
+      this.messageTimer = 120;
+      return;
+    }
+    if (!move.endsTurn() && combat.tryHeroAction(move.item(), move.target())
+        && combat.getState() == fr.uge.backpackhero.combat.CombatState.IN_PROGRESS && combat.isHeroTurn()) {
+      startSearch(true);
+      return;
+    }
+    if (combat.getState() == fr.uge.backpackhero.combat.CombatState.WIN) {
+      processCombatVictory(combat);
+    } else {
+      executerFinDeTour(combat);
+    }
+  }
+
+  private void exportCombatLog() {
+    var log = jeu.getCombatLog();
+    try {
+      CombatLogExporter.writeBinary(log, Path.of("combat_log.bin"));
+      CombatLogExporter.writeCsv(log, Path.of("combat_log.csv"));
+      this.messageFlash = "Combat log saved (" + log.size() + " events)";
+    } catch (IOException e) {
+      this.messageFlash = "Could not save the combat log";
+    }
+    this.messageTimer = 120;
+  }
+
   private boolean detecterActionSacCombat(int mx, int my) {
     int col = Math.floorDiv(mx - backpackStartX, TILE_SIZE);
     int row = Math.floorDiv(my - backpackStartY, TILE_SIZE);
@@ -522,11 +608,9 @@ public class GraphicEngine {
 
   private void detecterClicEnnemi(int mx, int my, ScreenInfo info) {
     var list = jeu.getCombat().getAliveEnemies();
-    int availableWidth = info.width() / 2;
-    int spacing = availableWidth / (list.size() + 1);
     for (int i = 0; i < list.size(); i++) {
-      int x = (i + 1) * spacing - 64;
-      if (mx >= x && mx <= x + 128 && my >= 250 && my <= 378) {
+      var cell = enemyCell(i, list.size(), info);
+      if (cell.contains(mx, my)) {
         this.messageFlash = "Target: " + list.get(i).getName();
         this.messageTimer = 60;
       }
@@ -570,12 +654,41 @@ public class GraphicEngine {
   }
 
   private void renderEnemies(Graphics2D g, List<Ennemi> ennemis, ScreenInfo info) {
-    // On limite la zone des ennemis à la moitié gauche de l'écran (0 à width/2)
-    int availableWidth = info.width() / 2;
-    int spacing = availableWidth / (ennemis.size() + 1);
     for (int i = 0; i < ennemis.size(); i++) {
-      // Les ennemis seront centrés dans la moitié gauche
-      drawEnemyCombat(g, ennemis.get(i), (i + 1) * spacing - 32, 250);
+      var cell = enemyCell(i, ennemis.size(), info);
+      if (cell.width == ENEMY_SIZE) {
+        drawEnemyCombat(g, ennemis.get(i), cell.x, cell.y);
+      } else {
+        drawEnemyCompact(g, ennemis.get(i), cell);
+      }
+    }
+  }
+
+  /**
+   * Computes where an enemy is drawn. The enemies are centered in a row on the
+   * left half of the screen while they fit; a horde is laid out in a grid of
+   * smaller cells between the top of the screen and the End Turn button.
+   */
+  private static Rectangle enemyCell(int index, int count, ScreenInfo info) {
+    int availableWidth = info.width() / 2;
+    int spacing = availableWidth / (count + 1);
+    if (spacing >= ENEMY_SIZE + 72) {
+      return new Rectangle((index + 1) * spacing - 32, 250, ENEMY_SIZE, ENEMY_SIZE);
+    }
+    int columns = (int) Math.ceil(Math.sqrt(count * (double) availableWidth / HORDE_HEIGHT));
+    int rows = (count + columns - 1) / columns;
+    int cell = Math.min(Math.min(availableWidth / columns, HORDE_HEIGHT / rows), ENEMY_SIZE - 1);
+    int size = cell - 8;
+    return new Rectangle(index % columns * cell + 4, HORDE_TOP + index / columns * cell + 4, size, size);
+  }
+
+  private void drawEnemyCompact(Graphics2D g, Ennemi e, Rectangle cell) {
+    g.drawImage(img.getImage(e.getName()), cell.x, cell.y + 4, cell.width, cell.height - 4, null);
+    g.setColor(Color.RED);
+    g.fillRect(cell.x, cell.y, (int) (cell.width * ((float) e.getHp() / e.getMaxHp())), 3);
+    if (cell.contains(mouseX, mouseY)) {
+      renderEnemyIntent(g, e, cell.x, cell.y + 40);
+      renderEnemyStatus(g, e, cell.x + cell.width - 135, cell.y);
     }
   }
 
@@ -590,15 +703,11 @@ public class GraphicEngine {
   }
 
   private void renderEnemyStatus(Graphics2D g, Ennemi e, int x, int y) {
-    int offset = 0;
-    for (fr.uge.backpackhero.combat.Effect effect : fr.uge.backpackhero.combat.Effect.values()) {
-      int stacks = e.getStatus(effect);
-      if (stacks > 0) {
-        g.setColor(Color.CYAN);
-        g.drawString(effect.getNom() + " : " + stacks, x + 135, y + 20 + offset);
-        offset += 15;
-      }
-    }
+    g.setColor(Color.CYAN);
+    var line = new int[1];
+    e.forEachStatus((effect, stacks) -> {
+      g.drawString(effect.getNom() + " : " + stacks, x + 135, y + 20 + 15 * line[0]++);
+    });
   }
 
   private void renderEnemyIntent(Graphics2D g, Ennemi e, int x, int y) {
@@ -635,7 +744,10 @@ public class GraphicEngine {
   private void renderStoreItem(Graphics2D g, ItemInstance item, int x, int y) {
     g.drawImage(img.getImage(item.getItem().name().replace(" ", "_")), x, y, 80, 80, null);
     g.setColor(Color.YELLOW);
-    g.drawString(item.getItem().price() + " Gold", x + 10, y + 110);
+    g.drawString(item.effectivePrice() + " Gold", x + 10, y + 110);
+    if (item.getAffixes() != Affixes.NONE) {
+      g.drawString(Affixes.describe(item.getAffixes()), x + 10, y + 125);
+    }
   }
 
   private void renderGhostItem(Graphics2D g) {
@@ -646,12 +758,24 @@ public class GraphicEngine {
       g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.6f));
       int col = (mouseX - backpackStartX) / TILE_SIZE;
       int row = (mouseY - backpackStartY) / TILE_SIZE;
-      int dx = (col >= 0 && col < jeu.getHeros().getBackpack().getWidth()) ? backpackStartX + col * TILE_SIZE
-          : mouseX - 32;
-      int dy = (row >= 0 && row < jeu.getHeros().getBackpack().getHeight()) ? backpackStartY + row * TILE_SIZE
-          : mouseY - 32;
+      boolean insideCol = col >= 0 && col < jeu.getHeros().getBackpack().getWidth();
+      boolean insideRow = row >= 0 && row < jeu.getHeros().getBackpack().getHeight();
+      int dx = insideCol ? backpackStartX + col * TILE_SIZE : mouseX - 32;
+      int dy = insideRow ? backpackStartY + row * TILE_SIZE : mouseY - 32;
       drawItem(g, item, dx, dy, TILE_SIZE);
       g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
+      if (insideCol && insideRow) {
+        renderPlacementValidity(g, item, row, col);
+      }
+    }
+  }
+
+  private void renderPlacementValidity(Graphics2D g, ItemInstance item, int row, int col) {
+    boolean valid = jeu.getHeros().getBackpack().canPlace(item, new Position(row, col));
+    g.setColor(valid ? new Color(46, 204, 113, 70) : new Color(231, 76, 60, 70));
+    for (var cell : item.getCurrentShape()) {
+      g.fillRect(backpackStartX + (col + cell.column()) * TILE_SIZE, backpackStartY + (row + cell.row()) * TILE_SIZE,
+          TILE_SIZE, TILE_SIZE);
     }
   }
 
@@ -660,9 +784,9 @@ public class GraphicEngine {
     Image image = img.getImage(name);
     if (image == null)
       return;
-    var shape = item.getItem().shapeAtRotation(0);
-    int bw = shape.stream().mapToInt(Position::column).max().getAsInt() + 1;
-    int bh = shape.stream().mapToInt(Position::row).max().getAsInt() + 1;
+    var shape = ShapeRegistry.get(item.getItem().pos(), 0);
+    int bw = shape.width();
+    int bh = shape.height();
     var transform = g.getTransform();
     g.translate(px, py);
     applyRotationLogic(g, item, cellSize, bw, bh);
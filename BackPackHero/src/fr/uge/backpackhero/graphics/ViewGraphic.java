@@ -4,6 +4,7 @@ import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import com.github.forax.zen.*;
 import fr.uge.backpackhero.combat.CombatInteractionDelegate;
 import fr.uge.backpackhero.entites.Heros;
@@ -22,6 +23,8 @@ public class ViewGraphic implements CombatInteractionDelegate {
   private int currentReorganizeIndex = 0;
   private static final int TILE_SIZE = 64;
   private int tilesLeftToUnlock = 0;
+  private static final long PACKING_BUDGET_MILLIS = 500;
+  private CompletableFuture<PackingResult> packing = null;
 
   /**
    * Constructs the view with the required game components.
@@ -41,16 +44,54 @@ public class ViewGraphic implements CombatInteractionDelegate {
    * bag.
    */
   public void reorganize() {
-    this.mode = InteractionMode.REORGANIZE;
-    this.itemsToReorganize = backPack.removeAllItems();
+    startManualReorganize(backPack.removeAllItems());
+  }
+
+  /**
+   * Empties the bag and lets the packing solver place the items on a worker
+   * thread. The result is applied by {@link #update()}; items the solver could
+   * not place are then handed to the manual reorganization mode.
+   */
+  public void autoReorganize() {
+    var items = backPack.removeAllItems();
+    if (items.isEmpty()) {
+      return;
+    }
+    this.itemsToReorganize = items;
+    this.mode = InteractionMode.AUTO_PACKING;
+    this.packing = PackingSolver.solveAsync(backPack, items, PackingObjective.MELEE_ADJACENT, PACKING_BUDGET_MILLIS);
+  }
+
+  /**
+   * Applies the layout of a finished automatic packing. Called once per frame.
+   */
+  public void update() {
+    if (mode != InteractionMode.AUTO_PACKING || !packing.isDone()) {
+      return;
+    }
+    var leftOver = packing.join().applyTo(backPack);
+    this.packing = null;
+    startManualReorganize(leftOver);
+  }
+
+  private void startManualReorganize(List<ItemInstance> items) {
+    this.itemsToReorganize = items;
     this.currentReorganizeIndex = 0;
-    if (itemsToReorganize.isEmpty()) {
+    if (items.isEmpty()) {
       this.mode = InteractionMode.NONE;
+      this.currentItem = null;
     } else {
-      this.currentItem = itemsToReorganize.get(0);
+      this.mode = InteractionMode.REORGANIZE;
+      this.currentItem = items.get(0);
     }
   }
 
+  private void cancelAutoPacking() {
+    packing.cancel(false);
+    this.packing = null;
+    startManualReorganize(itemsToReorganize);
+  }
+
   /**
    * Processes keyboard input based on the current interaction mode.
    * 
@@ -63,6 +104,11 @@ public class ViewGraphic implements CombatInteractionDelegate {
     case FORCED_CURSE -> handleCurseKeys(key);
     case WAITING_POSITION, REORGANIZE -> handlePositioningKeys(key);
     case LEVEL_UP -> {}
+    case AUTO_PACKING -> {
+      if (key == KeyboardEvent.Key.ESCAPE) {
+        cancelAutoPacking();
+      }
+    }
     default -> {
     }
     }
@@ -182,6 +228,7 @@ public class ViewGraphic implements CombatInteractionDelegate {
     case WAITING_POSITION -> renderInstruction(g, screenInfo, "Click in backpack to place");
     case LEVEL_UP -> renderInstruction(g, screenInfo, "LEVEL UP! Click a tile to unlock");
     case REORGANIZE -> renderInstruction(g, screenInfo, "Reorganizing items...");
+    case AUTO_PACKING -> renderInstruction(g, screenInfo, "Packing items... [ESC] Place by hand");
     default -> {
     }
     }
@@ -276,6 +323,6 @@ public class ViewGraphic implements CombatInteractionDelegate {
 
   /** Interaction modes for the UI. */
   public enum InteractionMode {
-    NONE, ITEM_PLACEMENT, WAITING_POSITION, FORCED_CURSE, LEVEL_UP, REORGANIZE
+    NONE, ITEM_PLACEMENT, WAITING_POSITION, FORCED_CURSE, LEVEL_UP, REORGANIZE, AUTO_PACKING
   }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package fr.uge.backpackhero.item;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Encoding of the affixes of an item instance into a single {@code int}, on
+ * top of its shared base {@link Item}. Bits 0-7 hold the change of stats, bits
+ * 8-15 the change of energy cost and bits 16-23 the change of price, each one
+ * a signed byte. An instance without affixes has the value {@link #NONE}.
+ * <p>
+ * The effective values are computed from the base item and the affixes on
+ * each call, so rolling affixes never allocates.
+ * </p>
+ */
+public final class Affixes {
+  /** No affix: the instance has the stats of its base item. */
+  public static final int NONE = 0;
+
+  private static final double CHANCE = 0.3;
+  private static final int PRICE_PER_STAT = 2;
+  private static final int PRICE_PER_COST = 4;
+
+  private Affixes() {
+  }
+
+  /**
+   * Encodes affixes.
+   *
+   * @param stats the change of stats (damage, protection...)
+   * @param cost  the change of energy cost
+   * @param price the change of price
+   * @return the encoded affixes
+   * @throws IllegalArgumentException if a value does not fit a signed byte
+   */
+  public static int encode(int stats, int cost, int price) {
+    if (stats != (byte) stats || cost != (byte) cost || price != (byte) price) {
+      throw new IllegalArgumentException("Invalid affixes " + stats + " " + cost + " " + price);
+    }
+    return (price & 0xFF) << 16 | (cost & 0xFF) << 8 | (stats & 0xFF);
+  }
+
+  /**
+   * @return the change of stats of encoded affixes.
+   */
+  public static int stats(int affixes) {
+    return (byte) affixes;
+  }
+
+  /**
+   * @return the change of energy cost of encoded affixes.
+   */
+  public static int cost(int affixes) {
+    return (byte) (affixes >>> 8);
+  }
+
+  /**
+   * @return the change of price of encoded affixes.
+   */
+  public static int price(int affixes) {
+    return (byte) (affixes >>> 16);
+  }
+
+  /**
+   * Indicates whether an item can get affixes: weapons, shields, armors and
+   * magic items.
+   *
+   * @param item the base item
+   * @return {@code true} if the item can get affixes
+   */
+  public static boolean accepts(Item item) {
+    return switch (Objects.requireNonNull(item)) {
+      case MeleeWeapon w -> true;
+      case Shield s -> true;
+      case Armor a -> true;
+      case MagicItem m -> true;
+      default -> false;
+    };
+  }
+
+  /**
+   * Rolls the affixes of a new instance. Affixed items either deal or block
+   * more, up to one point more per floor, or for weapons and shields cost one
+   * less energy, and are priced accordingly.
+   *
+   * @param item   the base item
+   * @param depth  the floor the item is found on, numbered from 0
+   * @param random the generator, usually the loot stream of a run
+   * @return the encoded affixes, {@link #NONE} most of the time
+   * @throws IllegalArgumentException if {@code depth} is negative
+   */
+  public static int roll(Item item, int depth, SplittableRandom random) {
+    Objects.requireNonNull(random);
+    if (depth < 0) {
+      throw new IllegalArgumentException("Negative depth " + depth);
+    }
+    if (!accepts(item) || random.nextDouble() >= CHANCE) {
+      return NONE;
+    }
+    // magic items spend mana, not their energy cost
+    boolean spendsEnergy = item instanceof MeleeWeapon || item instanceof Shield;
+    if (spendsEnergy && item.cost() > 0 && random.nextInt(3) == 0) {
+      return encode(0, -1, PRICE_PER_COST);
+    }
+    int bonus = 1 + random.nextInt(1 + Math.min(depth, 4));
+    return encode(bonus, 0, bonus * PRICE_PER_STAT);
+  }
+
+  /**
+   * Describes encoded affixes, for instance {@code "+2 stats, -1 cost"}.
+   *
+   * @param affixes the encoded affixes
+   * @return the description, empty for {@link #NONE}
+   */
+  public static String describe(int affixes) {
+    var builder = new StringBuilder();
+    append(builder, stats(affixes), "stats");
+    append(builder, cost(affixes), "cost");
+    return builder.toString();
+  }
+
+  private static void append(StringBuilder builder, int change, String name) {
+    if (change == 0) {
+      return;
+    }
+    if (!builder.isEmpty()) {
+      builder.append(", ");
+    }
+    builder.append(change > 0 ? "+" : "").append(change).append(' ').append(name);
+  }
+}
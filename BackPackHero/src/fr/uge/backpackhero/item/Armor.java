@@ -50,15 +50,12 @@ public record Armor(String name, List<Position> pos, Rarity rarity, int stats, i
    *
    * @return A short code representing this armor.
    *
-   * @throws IllegalArgumentException if no short form is defined for this armor
-   *                                  name.
+   * @throws IllegalArgumentException if the armor is not in the
+   *                                  {@link ItemCatalog}.
    */
   @Override
   public String toString() {
-    return switch (name) {
-    case "Leather Cap" -> "LC";
-    default -> throw new IllegalArgumentException("Unknown arrow type: " + name);
-    };
+    return ItemCatalog.standard().shortCode(name);
   }
 
   /**
@@ -50,15 +50,12 @@ public record Arrow(String name, List<Position> pos, Rarity rarity, int stats, i
    *
    * @return A short code representing this arrow.
    *
-   * @throws IllegalArgumentException if no short form is defined for this arrow
-   *                                  name.
+   * @throws IllegalArgumentException if the arrow is not in the
+   *                                  {@link ItemCatalog}.
    */
   @Override
   public String toString() {
-    return switch (name) {
-    case "Short Arrow" -> "SA";
-    default -> throw new IllegalArgumentException("Unknown arrow type: " + name);
-    };
+    return ItemCatalog.standard().shortCode(name);
   }
 
   /**
@@ -4,7 +4,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -18,6 +21,31 @@ public class BackPack {
   /** Stores which tiles are unlocked and available for items. */
   private final Set<Position> unlockedTiles;
 
+  /** Bitboard mirror of {@link #unlockedTiles}, used for placement tests. */
+  private final BitGrid unlockedBits;
+
+  /** Bitboard of the tiles currently covered by an item. */
+  private final BitGrid occupiedBits;
+
+  /**
+   * Free tiles (unlocked and not covered by an item) stored column-major: row
+   * {@code c} of this grid holds column {@code c} of the backpack, so the free
+   * tiles below a tile are counted with a single bit scan.
+   */
+  private final BitGrid freeColumns;
+
+  /**
+   * Locked tiles adjacent to the unlocked area, i.e. the tiles that can be
+   * unlocked next. Updated on every unlock.
+   */
+  private final Set<Position> unlockFrontier;
+
+  /** Bounding box of the unlocked tiles, updated on every unlock. */
+  private int minRow;
+  private int maxRow;
+  private int minColumn;
+  private int maxColumn;
+
   /** Maps absolute positions to the ItemInstance occupying them. */
   private final Map<Position, ItemInstance> grid;
 
@@ -25,7 +53,39 @@ public class BackPack {
    * Main map: associates each {@code ItemInstance} with the list of ABSOLUTE
    * {@code Position} it occupies in the grid.
    */
-  private final HashMap<ItemInstance, List<Position>> backpack;
+  private final Map<ItemInstance, List<Position>> backpack;
+
+  /**
+   * Adjacency graph of the placed items: associates each {@code ItemInstance}
+   * with the items touching one of its tiles. Updated on every placement and
+   * removal so neighbour queries never scan the whole backpack.
+   */
+  private final Map<ItemInstance, Set<ItemInstance>> neighbours;
+
+  /**
+   * Persistent copy of the placements, updated with every placement and removal
+   * so that {@link #snapshot()} does not have to copy anything.
+   */
+  private ItemTreap placements;
+
+  /**
+   * Read-only copy of {@link #unlockedBits} shared by the snapshots taken since
+   * the last unlock, or {@code null} if none was taken.
+   */
+  private BitGrid sharedUnlockedBits;
+
+  /**
+   * Zobrist hashes of the unlocked tiles and of the placed items, see
+   * {@link #layoutHash()}.
+   */
+  private long tilesHash;
+  private long itemsHash;
+
+  /** Secondary index of the placed items by concrete item class. */
+  private final Map<Class<? extends Item>, Set<ItemInstance>> itemsByKind;
+
+  /** Secondary index of the placed items by lower-cased item name. */
+  private final Map<String, Set<ItemInstance>> itemsByName;
 
   /**
    * The current amount of gold currency held by the player. This value is used
@@ -38,13 +98,22 @@ public class BackPack {
    * larger to allow for custom expansion.
    */
   public BackPack() {
-    this.backpack = new HashMap<>();
+    this.backpack = new LinkedHashMap<>();
     this.grid = new HashMap<>();
+    this.neighbours = new HashMap<>();
+    this.itemsByKind = new HashMap<>();
+    this.itemsByName = new HashMap<>();
     this.unlockedTiles = new HashSet<>();
+    this.unlockedBits = new BitGrid();
+    this.occupiedBits = new BitGrid();
+    this.freeColumns = new BitGrid();
+    this.unlockFrontier = new LinkedHashSet<>();
+    this.placements = ItemTreap.EMPTY;
     this.goldQuantity = 0;
+    resetBounds();
     for (int r = 0; r < 3; r++) {
       for (int c = 0; c < 5; c++) {
-        unlockedTiles.add(new Position(r, c));
+        markUnlocked(new Position(r, c));
       }
     }
   }
@@ -88,9 +157,42 @@ public class BackPack {
     return this.goldQuantity;
   }
 
-  private boolean hasAdjacentUnlockedTile(Position pos) {
-    return unlockedTiles.stream()
-        .anyMatch(unlocked -> Math.abs(unlocked.row() - pos.row()) + Math.abs(unlocked.column() - pos.column()) == 1);
+  /**
+   * Records a newly unlocked tile: updates the bitboard, the bounding box and
+   * the unlock frontier.
+   */
+  private void markUnlocked(Position pos) {
+    int r = pos.row();
+    int c = pos.column();
+    unlockedTiles.add(pos);
+    unlockedBits.set(r, c);
+    if (!occupiedBits.get(r, c)) {
+      freeColumns.set(c, r);
+    }
+    sharedUnlockedBits = null;
+    tilesHash ^= Zobrist.unlocked(r, c);
+    minRow = Math.min(minRow, r);
+    maxRow = Math.max(maxRow, r);
+    minColumn = Math.min(minColumn, c);
+    maxColumn = Math.max(maxColumn, c);
+    unlockFrontier.remove(pos);
+    addToFrontier(r - 1, c);
+    addToFrontier(r + 1, c);
+    addToFrontier(r, c - 1);
+    addToFrontier(r, c + 1);
+  }
+
+  private void resetBounds() {
+    this.minRow = Integer.MAX_VALUE;
+    this.maxRow = Integer.MIN_VALUE;
+    this.minColumn = Integer.MAX_VALUE;
+    this.maxColumn = Integer.MIN_VALUE;
+  }
+
+  private void addToFrontier(int row, int column) {
+    if (BitGrid.inBounds(row, column) && !unlockedBits.get(row, column)) {
+      unlockFrontier.add(new Position(row, column));
+    }
   }
 
   /**
@@ -102,17 +204,28 @@ public class BackPack {
    */
   public boolean unlockTile(Position pos) {
     Objects.requireNonNull(pos);
-    if (unlockedTiles.contains(pos)) {
+    if (!BitGrid.inBounds(pos.row(), pos.column()) || unlockedBits.get(pos.row(), pos.column())) {
       return false;
     }
 
     // Optional: check adjacency to prevent "floating" tiles
-    if (!hasAdjacentUnlockedTile(pos)) {
+    if (!unlockFrontier.contains(pos)) {
       System.out.println("You can only unlock a tile adjacent to your current backpack!");
       return false;
     }
 
-    return unlockedTiles.add(pos);
+    markUnlocked(pos);
+    return true;
+  }
+
+  /**
+   * Returns the locked tiles that are adjacent to the unlocked area, i.e. the
+   * tiles {@link #unlockTile(Position)} would accept.
+   *
+   * @return an unmodifiable, incrementally maintained view of the frontier.
+   */
+  public Set<Position> getUnlockFrontier() {
+    return Collections.unmodifiableSet(unlockFrontier);
   }
 
   /**
@@ -122,7 +235,7 @@ public class BackPack {
    * @return {@code true} if the tile is usable.
    */
   public boolean isAvailable(Position pos) {
-    return unlockedTiles.contains(pos) && !grid.containsKey(pos);
+    return unlockedBits.get(pos.row(), pos.column()) && !occupiedBits.get(pos.row(), pos.column());
   }
 
   /**
@@ -135,14 +248,68 @@ public class BackPack {
    * @throws NullPointerException if arguments are {@code null}
    */
   private boolean checkIfEnoughSpace(ItemInstance instance, Position startPos) {
-    for (var relative : instance.getCurrentShape()) {
-      Position absPos = new Position(startPos.row() + relative.row(), startPos.column() + relative.column());
+    long shape = instance.getShape().mask();
+    int r = startPos.row();
+    int c = startPos.column();
+    return unlockedBits.containsAll(shape, r, c) && !occupiedBits.intersects(shape, r, c);
+  }
 
-      if (!isAvailable(absPos)) {
-        return false;
-      }
+  /**
+   * Checks whether the item, in its current rotation, can be added at the given
+   * anchor. Curses only need unlocked tiles since they destroy what they cover.
+   *
+   * @param instance the item instance to check
+   * @param startPos the anchor position
+   * @return {@code true} if {@link #add(ItemInstance, Position)} would succeed
+   * @throws NullPointerException if arguments are {@code null}
+   */
+  public boolean canPlace(ItemInstance instance, Position startPos) {
+    Objects.requireNonNull(instance);
+    Objects.requireNonNull(startPos);
+    long mask = instance.getShape().mask();
+    if (instance.getItem().isCurse()) {
+      return unlockedBits.containsAll(mask, startPos.row(), startPos.column());
     }
-    return true;
+    return checkIfEnoughSpace(instance, startPos);
+  }
+
+  /**
+   * Enumerates every legal placement of an item in one sweep over the unlocked
+   * and occupied bitboards. Each distinct rotation of the item is tried (only
+   * the current one if the item cannot rotate); rotations giving the same shape
+   * as an earlier one are skipped.
+   *
+   * @param instance the item instance to place
+   * @return the legal placements, encoded with {@link Placements}
+   * @throws NullPointerException if {@code instance} is {@code null}
+   */
+  public int[] legalPlacements(ItemInstance instance) {
+    Objects.requireNonNull(instance);
+    return Placements.sweep(instance, unlockedBits, occupiedBits, minRow, maxRow);
+  }
+
+  /**
+   * Rotates the item as described by an encoded placement and adds it at the
+   * placement anchor.
+   *
+   * @param instance  the item to place
+   * @param placement a placement encoded with {@link Placements}
+   * @return {@code true} if successful
+   * @throws NullPointerException if {@code instance} is {@code null}
+   */
+  public boolean add(ItemInstance instance, int placement) {
+    Objects.requireNonNull(instance);
+    int previous = instance.getRotationAngle();
+    int angle = Placements.rotation(placement);
+    if (angle != previous && !instance.getItem().rotatable()) {
+      return false;
+    }
+    instance.setRotationAngle(angle);
+    if (add(instance, Placements.anchor(placement))) {
+      return true;
+    }
+    instance.setRotationAngle(previous);
+    return false;
   }
 
   /**
@@ -155,16 +322,75 @@ public class BackPack {
   private void placeItem(ItemInstance itemInstance, Position startPos) {
     Objects.requireNonNull(itemInstance);
     Objects.requireNonNull(startPos);
-    var absolutePositions = new ArrayList<Position>();
+    var shape = itemInstance.getShape();
+    var absolutePositions = new ArrayList<Position>(shape.cells().size());
 
-    for (var relative : itemInstance.getCurrentShape()) {
+    for (var relative : shape.cells()) {
       Position absPos = new Position(startPos.row() + relative.row(), startPos.column() + relative.column());
 
       this.grid.put(absPos, itemInstance);
+      freeColumns.clear(absPos.column(), absPos.row());
       absolutePositions.add(absPos);
     }
+    occupiedBits.setAll(shape.mask(), startPos.row(), startPos.column());
+    int turns = ShapeRegistry.rotationIndex(itemInstance.getRotationAngle());
+    int placement = Placements.encode(turns, startPos.row(), startPos.column());
+    placements = placements.put(itemInstance, placement);
+    itemsHash ^= Zobrist.item(itemInstance, placement);
+
+    this.backpack.put(itemInstance, List.copyOf(absolutePositions));
+    linkNeighbours(itemInstance, absolutePositions);
+    index(itemInstance);
+  }
+
+  private static String nameKey(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  private void index(ItemInstance instance) {
+    var item = instance.getItem();
+    itemsByKind.computeIfAbsent(item.getClass(), k -> new LinkedHashSet<>()).add(instance);
+    itemsByName.computeIfAbsent(nameKey(item.name()), k -> new LinkedHashSet<>()).add(instance);
+  }
+
+  private void unindex(ItemInstance instance) {
+    var item = instance.getItem();
+    itemsByKind.get(item.getClass()).remove(instance);
+    itemsByName.get(nameKey(item.name())).remove(instance);
+  }
+
+  /**
+   * Registers the edges between a freshly placed item and the items touching
+   * its tiles.
+   */
+  private void linkNeighbours(ItemInstance instance, List<Position> positions) {
+    var links = new LinkedHashSet<ItemInstance>();
+    for (var pos : positions) {
+      linkIfOccupied(instance, links, pos.row() - 1, pos.column());
+      linkIfOccupied(instance, links, pos.row() + 1, pos.column());
+      linkIfOccupied(instance, links, pos.row(), pos.column() - 1);
+      linkIfOccupied(instance, links, pos.row(), pos.column() + 1);
+    }
+    neighbours.put(instance, links);
+  }
+
+  private void linkIfOccupied(ItemInstance instance, Set<ItemInstance> links, int row, int column) {
+    if (!occupiedBits.get(row, column)) {
+      return;
+    }
+    var other = grid.get(new Position(row, column));
+    if (other != instance && links.add(other)) {
+      neighbours.get(other).add(instance);
+    }
+  }
 
-    this.backpack.put(itemInstance, absolutePositions);
+  private void unlinkNeighbours(ItemInstance instance) {
+    var links = neighbours.remove(instance);
+    if (links != null) {
+      for (var other : links) {
+        neighbours.get(other).remove(instance);
+      }
+    }
   }
 
   /**
@@ -200,24 +426,22 @@ public class BackPack {
    * Special logic for Curses: they destroy any existing items they overlap with.
    */
   private boolean addCurse(ItemInstance curse, Position startPos) {
-    var absolutePositions = new ArrayList<Position>();
-    for (var relative : curse.getCurrentShape()) {
-      Position absPos = new Position(startPos.row() + relative.row(), startPos.column() + relative.column());
-      if (!unlockedTiles.contains(absPos))
-        return false;
-      absolutePositions.add(absPos);
-    }
-    // Remove overlapping items
-    for (var pos : absolutePositions) {
-      ItemInstance overlapping = grid.get(pos);
-      if (overlapping != null)
-        removeItem(overlapping);
+    var shape = curse.getCurrentShape();
+    long mask = curse.getShape().mask();
+    int r = startPos.row();
+    int c = startPos.column();
+    if (!unlockedBits.containsAll(mask, r, c))
+      return false;
+    // Remove overlapping items, only looked up when the masks actually collide
+    if (occupiedBits.intersects(mask, r, c)) {
+      for (var relative : shape) {
+        ItemInstance overlapping = grid.get(new Position(r + relative.row(), c + relative.column()));
+        if (overlapping != null)
+          removeItem(overlapping);
+      }
     }
     // Place curse
-    for (var pos : absolutePositions) {
-      grid.put(pos, curse);
-    }
-    backpack.put(curse, absolutePositions);
+    placeItem(curse, startPos);
     return true;
   }
 
@@ -235,7 +459,13 @@ public class BackPack {
 
     for (var pos : positions) {
       grid.remove(pos);
+      occupiedBits.clear(pos.row(), pos.column());
+      freeColumns.set(pos.column(), pos.row());
     }
+    unlinkNeighbours(instance);
+    unindex(instance);
+    itemsHash ^= Zobrist.item(instance, placements.placementOf(instance));
+    placements = placements.remove(instance);
     return true;
   }
 
@@ -257,6 +487,68 @@ public class BackPack {
     return new ArrayList<>(this.backpack.keySet());
   }
 
+  /**
+   * Returns the items currently in the backpack without copying them.
+   *
+   * @return an unmodifiable live view of the placed items.
+   */
+  public Set<ItemInstance> itemsView() {
+    return Collections.unmodifiableSet(this.backpack.keySet());
+  }
+
+  /**
+   * Returns the items of the given kind currently in the backpack.
+   *
+   * @param kind the concrete item class to look for.
+   * @return an unmodifiable live view of the matching items.
+   * @throws NullPointerException if {@code kind} is {@code null}.
+   */
+  public Set<ItemInstance> itemsOfKind(Class<? extends Item> kind) {
+    Objects.requireNonNull(kind);
+    var items = itemsByKind.get(kind);
+    return items == null ? Set.of() : Collections.unmodifiableSet(items);
+  }
+
+  /**
+   * Counts the items of the given kind currently in the backpack.
+   *
+   * @param kind the concrete item class to look for.
+   * @return the number of matching items.
+   * @throws NullPointerException if {@code kind} is {@code null}.
+   */
+  public int count(Class<? extends Item> kind) {
+    Objects.requireNonNull(kind);
+    var items = itemsByKind.get(kind);
+    return items == null ? 0 : items.size();
+  }
+
+  /**
+   * Returns the first placed item of the given kind.
+   *
+   * @param kind the concrete item class to look for.
+   * @return an {@link Optional} containing the item, or empty if there is none.
+   * @throws NullPointerException if {@code kind} is {@code null}.
+   */
+  public Optional<ItemInstance> findFirst(Class<? extends Item> kind) {
+    return itemsOfKind(kind).stream().findFirst();
+  }
+
+  /**
+   * Returns the first placed item whose name matches, ignoring case.
+   *
+   * @param name the item name to look for.
+   * @return an {@link Optional} containing the item, or empty if there is none.
+   * @throws NullPointerException if {@code name} is {@code null}.
+   */
+  public Optional<ItemInstance> findFirstByName(String name) {
+    Objects.requireNonNull(name);
+    var items = itemsByName.get(nameKey(name));
+    if (items == null || items.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(items.iterator().next());
+  }
+
   /**
    * Returns a view of all grid positions currently unlocked in the backpack.
    *
@@ -273,7 +565,7 @@ public class BackPack {
    * @return the total count of items identified as mana stones.
    */
   public int countManaStones() {
-    return backpack.keySet().stream().map(ItemInstance::getItem).filter(Item::isManaStone).mapToInt(item -> 1).sum();
+    return count(ManaStone.class);
   }
 
   /**
@@ -292,11 +584,28 @@ public class BackPack {
   public boolean hasAdjacentItem(ItemInstance self, java.util.function.Predicate<Item> criteria) {
     Objects.requireNonNull(self);
     Objects.requireNonNull(criteria);
-    var myPositions = backpack.get(self);
+    for (var other : neighbours.getOrDefault(self, Set.of())) {
+      if (criteria.test(other.getItem())) {
+        return true;
+      }
+    }
+    return false;
+  }
 
-    return backpack.entrySet().stream().filter(entry -> !entry.getKey().equals(self))
-        .filter(entry -> criteria.test(entry.getKey().getItem()))
-        .anyMatch(entry -> areAdjacent(myPositions, entry.getValue()));
+  /**
+   * Determines if an item of the given kind is physically adjacent to the
+   * specified item.
+   *
+   * @param self the item instance used as the reference point.
+   * @param kind the class of the items being searched for.
+   * @return {@code true} if at least one item of that kind is adjacent to
+   *         {@code self}; {@code false} otherwise.
+   * @throws NullPointerException if {@code self} or {@code kind} is
+   *                              {@code null}.
+   */
+  public boolean hasAdjacentItem(ItemInstance self, Class<? extends Item> kind) {
+    Objects.requireNonNull(kind);
+    return getAdjacentItemInstance(self, kind).isPresent();
   }
 
   /**
@@ -317,24 +626,47 @@ public class BackPack {
       java.util.function.Predicate<Item> criteria) {
     Objects.requireNonNull(self);
     Objects.requireNonNull(criteria);
-    var myPositions = backpack.get(self);
-    if (myPositions == null)
-      return Optional.empty();
-
-    return backpack.entrySet().stream().filter(entry -> !entry.getKey().equals(self))
-        .filter(entry -> criteria.test(entry.getKey().getItem()))
-        .filter(entry -> areAdjacent(myPositions, entry.getValue())).map(Map.Entry::getKey).findFirst();
+    for (var other : neighbours.getOrDefault(self, Set.of())) {
+      if (criteria.test(other.getItem())) {
+        return Optional.of(other);
+      }
+    }
+    return Optional.empty();
   }
 
-  private boolean areAdjacent(List<Position> posA, List<Position> posB) {
-    for (var pA : posA) {
-      for (var pB : posB) {
-        int dist = Math.abs(pA.row() - pB.row()) + Math.abs(pA.column() - pB.column());
-        if (dist == 1)
-          return true;
+  /**
+   * Returns the first item of the given kind adjacent to the specified item.
+   *
+   * @param self the reference item instance used to check for neighbors.
+   * @param kind the class of the neighbor to be found.
+   * @return an {@link java.util.Optional} containing the first adjacent item of
+   *         that kind, or an empty {@code Optional} if there is none.
+   * @throws NullPointerException if {@code self} or {@code kind} is
+   *                              {@code null}.
+   */
+  public Optional<ItemInstance> getAdjacentItemInstance(ItemInstance self, Class<? extends Item> kind) {
+    Objects.requireNonNull(self);
+    Objects.requireNonNull(kind);
+    for (var other : neighbours.getOrDefault(self, Set.of())) {
+      if (other.getItem().getClass() == kind) {
+        return Optional.of(other);
       }
     }
-    return false;
+    return Optional.empty();
+  }
+
+  /**
+   * Returns the items touching one of the tiles of the specified item.
+   *
+   * @param self the reference item instance.
+   * @return an unmodifiable view of the neighbours of {@code self}, empty if the
+   *         item is not in the backpack.
+   * @throws NullPointerException if {@code self} is {@code null}.
+   */
+  public Set<ItemInstance> getAdjacentItems(ItemInstance self) {
+    Objects.requireNonNull(self);
+    var links = neighbours.get(self);
+    return links == null ? Set.of() : Collections.unmodifiableSet(links);
   }
 
   /**
@@ -349,6 +681,15 @@ public class BackPack {
 
     this.grid.clear();
     this.backpack.clear();
+    this.neighbours.clear();
+    this.itemsByKind.clear();
+    this.itemsByName.clear();
+    this.occupiedBits.clear();
+    this.placements = ItemTreap.EMPTY;
+    this.itemsHash = 0L;
+    for (var pos : unlockedTiles) {
+      freeColumns.set(pos.column(), pos.row());
+    }
 
     for (ItemInstance instance : itemsToReplace) {
       instance.setPos(null);
@@ -358,25 +699,168 @@ public class BackPack {
   }
 
   /**
-   * Calculates the current width of the backpack grid. The width is determined by
-   * finding the highest column index among all unlocked tiles and adding one.
+   * Captures the current state of the backpack. The snapshot shares the
+   * persistent placement map of the backpack and copies its two fixed-size
+   * bitboards, so it is taken in constant time whatever the number of items.
+   *
+   * @return an immutable snapshot of the tiles, items and gold
+   */
+  public BackPackSnapshot snapshot() {
+    if (sharedUnlockedBits == null) {
+      sharedUnlockedBits = unlockedBits.copy();
+    }
+    return new BackPackSnapshot(placements, sharedUnlockedBits, occupiedBits.copy(), minRow, maxRow, goldQuantity,
+        layoutHash());
+  }
+
+  /**
+   * Returns a 64-bit Zobrist hash of the layout: unlocked tiles and, for each
+   * placed item, its kind, affixes, rotation and tiles. The hash is updated on every
+   * unlock, placement and removal, and does not depend on item identity nor on
+   * gold, so equal layouts built from different instances share it.
+   *
+   * @return the layout hash
+   * @see #sameLayout(BackPack)
+   */
+  public long layoutHash() {
+    return tilesHash ^ itemsHash;
+  }
+
+  /**
+   * Checks whether two backpacks have the same layout: the same unlocked tiles
+   * and, on every tile, items of the same kind with the same affixes, rotation
+   * and anchor. Item instances themselves and gold are not compared.
+   *
+   * @param other the backpack to compare with
+   * @return {@code true} if both layouts are equal
+   * @throws NullPointerException if {@code other} is {@code null}
+   */
+  public boolean sameLayout(BackPack other) {
+    Objects.requireNonNull(other);
+    if (layoutHash() != other.layoutHash() || backpack.size() != other.backpack.size()
+        || !unlockedBits.sameBits(other.unlockedBits) || !occupiedBits.sameBits(other.occupiedBits)) {
+      return false;
+    }
+    for (var entry : backpack.entrySet()) {
+      var instance = entry.getKey();
+      var match = other.grid.get(entry.getValue().get(0));
+      if (match == null || !match.getItem().equals(instance.getItem()) || match.getAffixes() != instance.getAffixes()
+          || other.placements.placementOf(match) != placements.placementOf(instance)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Replaces the content of the backpack by a snapshot. The placements of a
+   * snapshot are legal by construction, so items are put back without checking
+   * their tiles again; each item gets back the rotation and anchor it has in the
+   * snapshot. Items placed in the backpack but absent from the snapshot are
+   * removed.
+   * <p>
+   * The tiles and the items are only rebuilt when they differ from the
+   * snapshot: since snapshots share the persistent structures of the backpack,
+   * restoring a snapshot of an unchanged part is a reference comparison.
+   * </p>
+   *
+   * @param snapshot the snapshot to restore
+   * @throws NullPointerException if {@code snapshot} is {@code null}
+   */
+  public void restore(BackPackSnapshot snapshot) {
+    Objects.requireNonNull(snapshot);
+    goldQuantity = snapshot.goldQuantity();
+    boolean sameTiles = sharedUnlockedBits != null && sharedUnlockedBits == snapshot.unlockedGrid();
+    if (sameTiles && placements == snapshot.itemTreap()) {
+      return;
+    }
+    removeAllItems();
+    if (!sameTiles) {
+      unlockedTiles.clear();
+      unlockedBits.clear();
+      freeColumns.clear();
+      unlockFrontier.clear();
+      tilesHash = 0L;
+      resetBounds();
+      snapshot.unlockedTiles().forEach(this::markUnlocked);
+      sharedUnlockedBits = snapshot.unlockedGrid();
+    }
+    snapshot.forEachPlacement((instance, placement) -> {
+      var anchor = Placements.anchor(placement);
+      instance.setRotationAngle(Placements.rotation(placement));
+      placeItem(instance, anchor);
+      instance.setPos(anchor);
+    });
+    placements = snapshot.itemTreap();
+  }
+
+  /**
+   * Counts the free tiles (unlocked and not covered by an item) directly below
+   * a tile, up to the first locked or occupied one. The count is read from a
+   * column-major bitboard of the free tiles kept up to date on every unlock,
+   * placement and removal, so it runs in constant time.
+   *
+   * @param pos the tile to look under
+   * @return the number of consecutive free tiles below {@code pos}
+   * @throws NullPointerException if {@code pos} is {@code null}
+   */
+  public int freeCellsBelow(Position pos) {
+    Objects.requireNonNull(pos);
+    return freeColumns.runFrom(pos.column(), pos.row() + 1);
+  }
+
+  /**
+   * Returns the current width of the backpack grid, i.e. the highest column
+   * index among all unlocked tiles plus one, or 1 if no tile is unlocked. The
+   * bound is maintained on every unlock.
    *
    * @return the total number of columns spanning the unlocked area of the
-   *         backpack, or 0 if no tiles are unlocked.
+   *         backpack.
    */
   public int getWidth() {
-    return unlockedTiles.stream().mapToInt(Position::column).max().orElse(0) + 1;
+    return hasBounds() ? maxColumn + 1 : 1;
   }
 
   /**
-   * Calculates the current height of the backpack grid. The height is determined
-   * by finding the highest row index among all unlocked tiles and adding one.
+   * Returns the current height of the backpack grid, i.e. the highest row index
+   * among all unlocked tiles plus one, or 1 if no tile is unlocked. The bound
+   * is maintained on every unlock.
    *
-   * @return the total number of rows spanning the unlocked area of the backpack,
-   *         or 0 if no tiles are unlocked.
+   * @return the total number of rows spanning the unlocked area of the backpack.
    */
   public int getHeight() {
-    return unlockedTiles.stream().mapToInt(Position::row).max().orElse(0) + 1;
+    return hasBounds() ? maxRow + 1 : 1;
+  }
+
+  /** @return whether the bounds hold at least one unlocked tile. */
+  private boolean hasBounds() {
+    return minRow <= maxRow;
+  }
+
+  /**
+   * @return the lowest row index among all unlocked tiles, or 0 if no tile is
+   *         unlocked.
+   */
+  public int getMinRow() {
+    return hasBounds() ? minRow : 0;
+  }
+
+  /**
+   * @return the lowest column index among all unlocked tiles, or 0 if no tile
+   *         is unlocked.
+   */
+  public int getMinColumn() {
+    return hasBounds() ? minColumn : 0;
+  }
+
+  /** @return a copy of the unlocked tiles bitboard. */
+  BitGrid unlockedGrid() {
+    return unlockedBits.copy();
+  }
+
+  /** @return a copy of the occupied tiles bitboard. */
+  BitGrid occupiedGrid() {
+    return occupiedBits.copy();
   }
 
   /**
@@ -390,7 +874,7 @@ public class BackPack {
    */
   public List<Position> getPositions(ItemInstance instance) {
     Objects.requireNonNull(instance);
-    return List.copyOf(backpack.getOrDefault(instance, List.of()));
+    return backpack.getOrDefault(instance, List.of());
   }
 
 }
@@ -0,0 +1,254 @@
+package fr.uge.backpackhero.item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Immutable state of a {@link BackPack}: unlocked tiles, placed items with
+ * their anchor and rotation, and gold. Snapshots are taken in constant time
+ * with {@link BackPack#snapshot()} and restored with
+ * {@link BackPack#restore(BackPackSnapshot)}.
+ * <p>
+ * {@link #with(ItemInstance, int)} and {@link #without(ItemInstance)} return a
+ * new snapshot sharing most of its structure with this one, so a search can
+ * fork a position many times without copying the backpack. The item instances
+ * themselves are not copied nor modified: their rotation and anchor are only
+ * applied when a snapshot is restored.
+ * </p>
+ */
+public final class BackPackSnapshot {
+  private final ItemTreap items;
+  private final BitGrid unlocked;
+  private final BitGrid occupied;
+  private final int minRow;
+  private final int maxRow;
+  private final int goldQuantity;
+  private final long layoutHash;
+
+  /**
+   * Wraps grids that are never modified afterwards: the backpack and the
+   * functional updates always hand over fresh or shared read-only copies.
+   */
+  BackPackSnapshot(ItemTreap items, BitGrid unlocked, BitGrid occupied, int minRow, int maxRow, int goldQuantity,
+      long layoutHash) {
+    this.items = items;
+    this.unlocked = unlocked;
+    this.occupied = occupied;
+    this.minRow = minRow;
+    this.maxRow = maxRow;
+    this.goldQuantity = goldQuantity;
+    this.layoutHash = layoutHash;
+  }
+
+  /**
+   * @return the number of placed items.
+   */
+  public int size() {
+    return items.size();
+  }
+
+  /**
+   * @return the placed items, in creation order.
+   */
+  public List<ItemInstance> items() {
+    var result = new ArrayList<ItemInstance>(items.size());
+    items.forEach((instance, placement) -> result.add(instance));
+    return List.copyOf(result);
+  }
+
+  /**
+   * @return {@code true} if the instance is placed in this snapshot.
+   */
+  public boolean contains(ItemInstance instance) {
+    Objects.requireNonNull(instance);
+    return items.placementOf(instance) >= 0;
+  }
+
+  /**
+   * Returns the placement of an item in this snapshot.
+   *
+   * @param instance the item instance
+   * @return the placement encoded with {@link Placements}, or an empty optional
+   *         if the item is not placed
+   */
+  public OptionalInt placementOf(ItemInstance instance) {
+    Objects.requireNonNull(instance);
+    int placement = items.placementOf(instance);
+    return placement < 0 ? OptionalInt.empty() : OptionalInt.of(placement);
+  }
+
+  /**
+   * @return the gold held when the snapshot was taken.
+   */
+  public int goldQuantity() {
+    return goldQuantity;
+  }
+
+  /**
+   * @return the layout hash, as {@link BackPack#layoutHash()} would return it
+   *         for this state.
+   */
+  public long layoutHash() {
+    return layoutHash;
+  }
+
+  /**
+   * Checks if a tile is unlocked and not covered by an item.
+   *
+   * @param pos the position to check
+   * @return {@code true} if an item could use the tile
+   */
+  public boolean isAvailable(Position pos) {
+    Objects.requireNonNull(pos);
+    return unlocked.get(pos.row(), pos.column()) && !occupied.get(pos.row(), pos.column());
+  }
+
+  /**
+   * Checks whether an item could be placed, following the rules of
+   * {@link BackPack#add(ItemInstance, int)}: a curse only needs unlocked tiles,
+   * any other item also needs them to be free.
+   *
+   * @param instance  the item to place, not yet in this snapshot
+   * @param placement a placement encoded with {@link Placements}
+   * @return {@code true} if the placement is legal
+   */
+  public boolean canPlace(ItemInstance instance, int placement) {
+    Objects.requireNonNull(instance);
+    var item = instance.getItem();
+    int turns = Placements.quarterTurns(placement);
+    if (!item.rotatable() && turns != ShapeRegistry.rotationIndex(instance.getRotationAngle())) {
+      return false;
+    }
+    long mask = ShapeRegistry.rotations(item.pos())[turns].mask();
+    int row = Placements.row(placement);
+    int column = Placements.column(placement);
+    return unlocked.containsAll(mask, row, column) && (item.isCurse() || !occupied.intersects(mask, row, column));
+  }
+
+  /**
+   * @return the legal placements of an item, as
+   *         {@link BackPack#legalPlacements(ItemInstance)} would return them.
+   */
+  public int[] legalPlacements(ItemInstance instance) {
+    Objects.requireNonNull(instance);
+    return Placements.sweep(instance, unlocked, occupied, minRow, maxRow);
+  }
+
+  /**
+   * Returns a snapshot where the item is placed at a position with its current
+   * rotation.
+   *
+   * @see #with(ItemInstance, int)
+   */
+  public BackPackSnapshot with(ItemInstance instance, Position pos) {
+    Objects.requireNonNull(instance);
+    Objects.requireNonNull(pos);
+    int turns = ShapeRegistry.rotationIndex(instance.getRotationAngle());
+    return with(instance, Placements.encode(turns, pos.row(), pos.column()));
+  }
+
+  /**
+   * Returns a snapshot where the item is placed as described by an encoded
+   * placement. As in the backpack, a curse destroys the items it overlaps.
+   *
+   * @param instance  the item to place
+   * @param placement a placement encoded with {@link Placements}
+   * @return the new snapshot; this one is left unchanged
+   * @throws IllegalArgumentException if the item is already placed or the
+   *                                  placement is not legal
+   */
+  public BackPackSnapshot with(ItemInstance instance, int placement) {
+    Objects.requireNonNull(instance);
+    if (contains(instance)) {
+      throw new IllegalArgumentException(instance + " is already in the backpack.");
+    }
+    if (!canPlace(instance, placement)) {
+      throw new IllegalArgumentException("Cannot place " + instance + " at " + Placements.toString(placement));
+    }
+    var nextItems = items;
+    long nextHash = layoutHash ^ Zobrist.item(instance, placement);
+    var nextOccupied = occupied.copy();
+    long mask = shapeMask(instance, placement);
+    int row = Placements.row(placement);
+    int column = Placements.column(placement);
+    if (occupied.intersects(mask, row, column)) {
+      var covered = new BitGrid();
+      covered.setAll(mask, row, column);
+      var destroyed = new ArrayList<ItemInstance>();
+      items.forEach((other, where) -> {
+        if (covered.intersects(shapeMask(other, where), Placements.row(where), Placements.column(where))) {
+          destroyed.add(other);
+        }
+      });
+      for (var other : destroyed) {
+        int where = items.placementOf(other);
+        nextOccupied.clearAll(shapeMask(other, where), Placements.row(where), Placements.column(where));
+        nextItems = nextItems.remove(other);
+        nextHash ^= Zobrist.item(other, where);
+      }
+    }
+    nextOccupied.setAll(mask, row, column);
+    return new BackPackSnapshot(nextItems.put(instance, placement), unlocked, nextOccupied, minRow, maxRow,
+        goldQuantity, nextHash);
+  }
+
+  /**
+   * Returns a snapshot without the given item.
+   *
+   * @param instance the item to remove
+   * @return the new snapshot, or this one if the item is not placed
+   */
+  public BackPackSnapshot without(ItemInstance instance) {
+    Objects.requireNonNull(instance);
+    int placement = items.placementOf(instance);
+    if (placement < 0) {
+      return this;
+    }
+    var nextOccupied = occupied.copy();
+    nextOccupied.clearAll(shapeMask(instance, placement), Placements.row(placement), Placements.column(placement));
+    return new BackPackSnapshot(items.remove(instance), unlocked, nextOccupied, minRow, maxRow, goldQuantity,
+        layoutHash ^ Zobrist.item(instance, placement));
+  }
+
+  /**
+   * Returns a snapshot with the same layout made of new item instances. The
+   * copy can be restored in another backpack and played independently of this
+   * one, for instance in a simulation.
+   *
+   * @return a snapshot with fresh instances of the same items
+   */
+  public BackPackSnapshot copyInstances() {
+    var copies = ItemTreap.EMPTY;
+    for (var instance : items()) {
+      copies = copies.put(new ItemInstance(instance.getItem(), instance.getAffixes()), items.placementOf(instance));
+    }
+    return new BackPackSnapshot(copies, unlocked, occupied, minRow, maxRow, goldQuantity, layoutHash);
+  }
+
+  private static long shapeMask(ItemInstance instance, int placement) {
+    return ShapeRegistry.rotations(instance.getItem().pos())[Placements.quarterTurns(placement)].mask();
+  }
+
+  /** @return the unlocked tiles, row by row. */
+  List<Position> unlockedTiles() {
+    return unlocked.cells();
+  }
+
+  /** @return the read-only unlocked grid, shared with the backpack. */
+  BitGrid unlockedGrid() {
+    return unlocked;
+  }
+
+  /** @return the persistent placement map. */
+  ItemTreap itemTreap() {
+    return items;
+  }
+
+  /** Visits the placed items with their placement. */
+  void forEachPlacement(ObjIntConsumer<ItemInstance> action) {
+    items.forEach(action);
+  }
+}
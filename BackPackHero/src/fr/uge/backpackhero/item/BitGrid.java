@@ -0,0 +1,244 @@
+package fr.uge.backpackhero.item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Fixed-size bitboard covering every cell a backpack can reach. Each row is
+ * stored in one {@code long} where bit {@code column + ORIGIN} stands for the
+ * given column, so a whole row of an item shape is tested or written with a
+ * single AND/OR.
+ * <p>
+ * Item shapes are handled as packed 8x8 masks (see {@link #pack(List)}): byte
+ * {@code i} of the mask holds the columns occupied by relative row {@code i}.
+ * </p>
+ */
+final class BitGrid {
+
+  /** Offset added to a row or column index to obtain its bit index. */
+  static final int ORIGIN = 32;
+
+  /** Number of rows and columns covered by the grid. */
+  static final int SIZE = 64;
+
+  /** Largest width or height of a packed shape. */
+  static final int SHAPE_SIZE = 8;
+
+  private final long[] rows = new long[SIZE];
+
+  /**
+   * Checks whether a coordinate is covered by the grid.
+   *
+   * @param row    the row index
+   * @param column the column index
+   * @return {@code true} if the cell has a bit in the grid
+   */
+  static boolean inBounds(int row, int column) {
+    return row >= -ORIGIN && row < SIZE - ORIGIN && column >= -ORIGIN && column < SIZE - ORIGIN;
+  }
+
+  /**
+   * Packs a list of relative positions into an 8x8 mask.
+   *
+   * @param shape the relative positions, all within {@code [0, 8)}
+   * @return the packed mask
+   * @throws IllegalArgumentException if a position does not fit in 8x8
+   */
+  static long pack(List<Position> shape) {
+    Objects.requireNonNull(shape);
+    long mask = 0L;
+    for (var p : shape) {
+      if (p.row() < 0 || p.row() >= SHAPE_SIZE || p.column() < 0 || p.column() >= SHAPE_SIZE) {
+        throw new IllegalArgumentException("Shape cell out of the 8x8 range: " + p);
+      }
+      mask |= 1L << (p.row() * SHAPE_SIZE + p.column());
+    }
+    return mask;
+  }
+
+  /**
+   * Returns the number of rows spanned by a packed shape, starting at relative
+   * row 0.
+   */
+  static int shapeHeight(long shape) {
+    return (Long.SIZE - Long.numberOfLeadingZeros(shape) + SHAPE_SIZE - 1) / SHAPE_SIZE;
+  }
+
+  /**
+   * Returns the first relative row occupied by a packed shape, 0 for the
+   * normalized shapes of {@link ShapeRegistry}.
+   */
+  static int shapeTop(long shape) {
+    return Long.numberOfTrailingZeros(shape) / SHAPE_SIZE;
+  }
+
+  /**
+   * Returns the number of columns spanned by a packed shape, starting at
+   * relative column 0.
+   */
+  static int shapeWidth(long shape) {
+    long folded = shape | (shape >>> 32);
+    folded |= folded >>> 16;
+    folded |= folded >>> 8;
+    return Integer.SIZE - Integer.numberOfLeadingZeros((int) (folded & 0xFF));
+  }
+
+  private static boolean shapeInBounds(long shape, int row, int column) {
+    int r = row + ORIGIN;
+    int c = column + ORIGIN;
+    return r >= 0 && c >= 0 && r + shapeHeight(shape) <= SIZE && c + shapeWidth(shape) <= SIZE;
+  }
+
+  private static long rowMask(long shape, int relativeRow, int column) {
+    return ((shape >>> (relativeRow * SHAPE_SIZE)) & 0xFFL) << (column + ORIGIN);
+  }
+
+  /**
+   * @return {@code true} if the cell is inside the grid and its bit is set
+   */
+  boolean get(int row, int column) {
+    return inBounds(row, column) && (rows[row + ORIGIN] & (1L << (column + ORIGIN))) != 0;
+  }
+
+  /** Sets the bit of a cell that is inside the grid. */
+  void set(int row, int column) {
+    rows[row + ORIGIN] |= 1L << (column + ORIGIN);
+  }
+
+  /** Clears the bit of a cell that is inside the grid. */
+  void clear(int row, int column) {
+    rows[row + ORIGIN] &= ~(1L << (column + ORIGIN));
+  }
+
+  /**
+   * Counts the consecutive set cells of a row starting at the given column.
+   *
+   * @return 0 if the cell is cleared or outside the grid
+   */
+  int runFrom(int row, int column) {
+    if (!inBounds(row, column)) {
+      return 0;
+    }
+    return Long.numberOfTrailingZeros(~(rows[row + ORIGIN] >>> (column + ORIGIN)));
+  }
+
+  /** Clears every bit of the grid. */
+  void clear() {
+    Arrays.fill(rows, 0L);
+  }
+
+  /**
+   * Checks whether every cell of a shape anchored at the given position is set.
+   *
+   * @return {@code false} if the shape leaves the grid or hits a cleared cell
+   */
+  boolean containsAll(long shape, int row, int column) {
+    if (!shapeInBounds(shape, row, column)) {
+      return false;
+    }
+    int height = shapeHeight(shape);
+    for (int i = 0; i < height; i++) {
+      long mask = rowMask(shape, i, column);
+      if ((rows[row + ORIGIN + i] & mask) != mask) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether at least one cell of a shape anchored at the given position
+   * is set. Cells outside the grid are considered cleared.
+   */
+  boolean intersects(long shape, int row, int column) {
+    if (!shapeInBounds(shape, row, column)) {
+      return false;
+    }
+    int height = shapeHeight(shape);
+    for (int i = 0; i < height; i++) {
+      if ((rows[row + ORIGIN + i] & rowMask(shape, i, column)) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Computes, for one anchor row, every anchor column at which the shape lies
+   * entirely on cells set in this grid and cleared in {@code excluded}. All 64
+   * columns are tested at once: each shape cell shifts the row it covers back
+   * onto the anchor columns and the results are ANDed together.
+   *
+   * @param shape    the packed shape
+   * @param row      the anchor row
+   * @param excluded the grid of forbidden cells, or {@code null} for none
+   * @return a bit set where bit {@code column + ORIGIN} marks a valid anchor
+   */
+  long anchors(long shape, int row, BitGrid excluded) {
+    int height = shapeHeight(shape);
+    if (shape == 0L || row + ORIGIN < 0 || row + ORIGIN + height > SIZE) {
+      return 0L;
+    }
+    long candidates = -1L;
+    for (int i = 0; i < height && candidates != 0L; i++) {
+      long free = rows[row + ORIGIN + i];
+      if (excluded != null) {
+        free &= ~excluded.rows[row + ORIGIN + i];
+      }
+      int cells = (int) ((shape >>> (i * SHAPE_SIZE)) & 0xFF);
+      while (cells != 0) {
+        int j = Integer.numberOfTrailingZeros(cells);
+        candidates &= free >>> j;
+        cells &= cells - 1;
+      }
+    }
+    return candidates;
+  }
+
+  /** Sets every cell of a shape that has been checked to fit in the grid. */
+  void setAll(long shape, int row, int column) {
+    int height = shapeHeight(shape);
+    for (int i = 0; i < height; i++) {
+      rows[row + ORIGIN + i] |= rowMask(shape, i, column);
+    }
+  }
+
+  /** Clears every cell of a shape that has been checked to fit in the grid. */
+  void clearAll(long shape, int row, int column) {
+    int height = shapeHeight(shape);
+    for (int i = 0; i < height; i++) {
+      rows[row + ORIGIN + i] &= ~rowMask(shape, i, column);
+    }
+  }
+
+  /**
+   * @return {@code true} if both grids have exactly the same cells set.
+   */
+  boolean sameBits(BitGrid other) {
+    return Arrays.equals(rows, other.rows);
+  }
+
+  /**
+   * @return the set cells, row by row.
+   */
+  List<Position> cells() {
+    var cells = new ArrayList<Position>();
+    for (int r = 0; r < SIZE; r++) {
+      for (long bits = rows[r]; bits != 0L; bits &= bits - 1) {
+        cells.add(new Position(r - ORIGIN, Long.numberOfTrailingZeros(bits) - ORIGIN));
+      }
+    }
+    return cells;
+  }
+
+  /**
+   * @return an independent copy of this grid.
+   */
+  BitGrid copy() {
+    var copy = new BitGrid();
+    System.arraycopy(rows, 0, copy.rows, 0, SIZE);
+    return copy;
+  }
+}
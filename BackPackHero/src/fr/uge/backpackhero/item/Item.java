@@ -1,6 +1,5 @@
 package fr.uge.backpackhero.item;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import fr.uge.backpackhero.entites.Ennemi;
@@ -67,6 +66,26 @@ public sealed interface Item permits RangeWeapon, Arrow, MeleeWeapon, Armor, Shi
    */
   // boolean use(Heros heros, Ennemi target);
 
+  /**
+   * Returns the base damage, protection or mana of this item. Items without
+   * such a value return {@code 0}.
+   *
+   * @return the base stats of the item
+   */
+  default int stats() {
+    return 0;
+  }
+
+  /**
+   * Returns the energy needed to use this item. Items used for free return
+   * {@code 0}.
+   *
+   * @return the base energy cost of the item
+   */
+  default int cost() {
+    return 0;
+  }
+
   /**
    * Indicates whether this item can be rotated in the backpack.
    *
@@ -78,37 +97,14 @@ public sealed interface Item permits RangeWeapon, Arrow, MeleeWeapon, Armor, Shi
 
   /**
    * Calculates the rotated shape of the item according to the rotation angle.
+   * The rotations are computed once per distinct shape by the
+   * {@link ShapeRegistry} and the returned list is shared and immutable.
    *
-   * @param originalShape the original shape of the item
-   * @param angle         the rotation angle in degrees
+   * @param rotation the rotation angle in degrees
    * @return a list of positions representing the rotated shape
    */
   default List<Position> shapeAtRotation(int rotation) {
-    var shape = pos();
-    int times = (rotation % 360) / 90;
-
-    for (int i = 0; i < times; i++) {
-      shape = rotate90(shape);
-    }
-    return shape;
-  }
-
-  /**
-   * Rotates the shape 90 degrees clockwise and normalizes it to start at (0,0).
-   *
-   * @param shape the original shape
-   * @return the rotated and normalized shape
-   */
-  private List<Position> rotate90(List<Position> shape) {
-    var rotated = new ArrayList<Position>();
-    for (var p : shape) {
-      rotated.add(new Position(p.column(), -p.row()));
-    }
-
-    int minR = rotated.stream().mapToInt(Position::row).min().orElse(0);
-    int minC = rotated.stream().mapToInt(Position::column).min().orElse(0);
-
-    return rotated.stream().map(p -> new Position(p.row() - minR, p.column() - minC)).toList();
+    return ShapeRegistry.get(pos(), rotation).cells();
   }
 
   /**
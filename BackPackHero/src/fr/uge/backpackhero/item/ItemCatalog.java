@@ -0,0 +1,439 @@
+package fr.uge.backpackhero.item;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The items of the game, read from the {@code items.txt} resource. The
+ * catalogue is compiled into dense arrays indexed by item id, the rank of the
+ * item in the file, and each item is built once as a shared immutable
+ * prototype. Names are resolved to ids by a perfect hash, so every lookup is a
+ * few array reads.
+ * <p>
+ * The format is documented at the top of {@code resources/items.txt}. Adding
+ * an item only requires a new line in that file, and its image.
+ * </p>
+ */
+public final class ItemCatalog {
+  private static final String RESOURCE = "items.txt";
+  private static final String NONE = "-";
+
+  private final String[] names;
+  private final String[] codes;
+  private final Rarity[] rarities;
+  private final int[] stats;
+  private final int[] costs;
+  private final int[] prices;
+  private final Item[] items;
+  private final NameIndex index;
+  /** Id of the item of each {@link Stuff}, by ordinal, or -1. */
+  private final int[] stuffIds;
+
+  private ItemCatalog(List<String[]> rows) {
+    int size = rows.size();
+    this.names = new String[size];
+    this.codes = new String[size];
+    this.rarities = new Rarity[size];
+    this.stats = new int[size];
+    this.costs = new int[size];
+    this.prices = new int[size];
+    this.items = new Item[size];
+    for (int id = 0; id < size; id++) {
+      var row = rows.get(id);
+      codes[id] = row[0];
+      rarities[id] = Rarity.valueOf(row[2]);
+      stats[id] = row[4].equals(NONE) ? 0 : Integer.parseInt(row[4]);
+      costs[id] = row[5].equals(NONE) ? 0 : Integer.parseInt(row[5]);
+      prices[id] = Integer.parseInt(row[6]);
+      names[id] = row[7];
+      items[id] = Kind.of(row[1]).create(names[id], parseShape(row[3]), rarities[id], stats[id], costs[id],
+          prices[id]);
+    }
+    this.index = new NameIndex(names);
+    this.stuffIds = new int[Stuff.values().length];
+    for (var stuff : Stuff.values()) {
+      stuffIds[stuff.ordinal()] = index.find(stuff.displayName());
+    }
+  }
+
+  private static final class Standard {
+    private static final ItemCatalog INSTANCE = load();
+  }
+
+  /**
+   * Returns the catalogue shipped with the game, loaded on first use.
+   *
+   * @return the standard catalogue.
+   * @throws UncheckedIOException     if the resource cannot be read.
+   * @throws IllegalArgumentException if the resource is malformed.
+   */
+  public static ItemCatalog standard() {
+    return Standard.INSTANCE;
+  }
+
+  private static ItemCatalog load() {
+    try {
+      var stream = ItemCatalog.class.getResourceAsStream("/" + RESOURCE);
+      if (stream != null) {
+        try (var reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+          return parse(reader.lines().toList());
+        }
+      }
+      return parse(Files.readAllLines(Path.of("resources", RESOURCE)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Compiles a catalogue from the lines of a description file.
+   *
+   * @param lines the lines of the file.
+   * @return the compiled catalogue.
+   * @throws IllegalArgumentException if a line is malformed or a name is used
+   *                                  twice.
+   */
+  public static ItemCatalog parse(List<String> lines) {
+    Objects.requireNonNull(lines);
+    var rows = new ArrayList<String[]>();
+    var seen = new HashSet<String>();
+    for (int i = 0; i < lines.size(); i++) {
+      var line = lines.get(i).strip();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      // the name is the rest of the line, spaces included
+      var tokens = line.split("\\s+", 9);
+      try {
+        if (!tokens[0].equals("item") || tokens.length != 9) {
+          throw new IllegalArgumentException(
+              "expected: item <code> <kind> <rarity> <shape> <stats> <cost> <price> <name>");
+        }
+        var row = Arrays.copyOfRange(tokens, 1, 9);
+        validate(row);
+        if (!seen.add(row[7])) {
+          throw new IllegalArgumentException("duplicate item " + row[7]);
+        }
+        rows.add(row);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(RESOURCE + " line " + (i + 1) + ": " + e.getMessage(), e);
+      }
+    }
+    return new ItemCatalog(rows);
+  }
+
+  private static void validate(String[] row) {
+    var kind = Kind.of(row[1]);
+    Rarity.valueOf(row[2]);
+    parseShape(row[3]);
+    if (kind.hasStats == row[4].equals(NONE)) {
+      throw new IllegalArgumentException(kind.hasStats ? "missing stats" : row[1] + " items have no stats");
+    }
+    if (kind.hasCost == row[5].equals(NONE)) {
+      throw new IllegalArgumentException(kind.hasCost ? "missing cost" : row[1] + " items have no cost");
+    }
+    for (int column = 4; column <= 6; column++) {
+      if (!row[column].equals(NONE) && Integer.parseInt(row[column]) < 0) {
+        throw new IllegalArgumentException("stats, cost and price cannot be negative");
+      }
+    }
+    if (kind == Kind.CURSE && (!row[7].equals("Curse") || !row[2].equals("CURSE") || !row[6].equals("0"))) {
+      throw new IllegalArgumentException("a curse is named Curse, of rarity CURSE and free");
+    }
+  }
+
+  private static List<Position> parseShape(String shape) {
+    var cells = shape.split(";");
+    var positions = new Position[cells.length];
+    for (int i = 0; i < cells.length; i++) {
+      var coordinates = cells[i].split(",");
+      if (coordinates.length != 2) {
+        throw new IllegalArgumentException("expected a cell as row,column: " + cells[i]);
+      }
+      positions[i] = new Position(Integer.parseInt(coordinates[0]), Integer.parseInt(coordinates[1]));
+    }
+    return List.of(positions);
+  }
+
+  /**
+   * @return the number of items, ids ranging from 0 to this number excluded.
+   */
+  public int size() {
+    return items.length;
+  }
+
+  /**
+   * Finds the id of an item by name.
+   *
+   * @param name the display name of the item.
+   * @return the id of the item, or -1 if no item has this name.
+   */
+  public int find(String name) {
+    Objects.requireNonNull(name);
+    return index.find(name);
+  }
+
+  /**
+   * Returns the id of an item by name.
+   *
+   * @param name the display name of the item.
+   * @return the id of the item.
+   * @throws IllegalArgumentException if no item has this name.
+   */
+  public int id(String name) {
+    int id = find(name);
+    if (id == -1) {
+      throw new IllegalArgumentException("Unknown item " + name);
+    }
+    return id;
+  }
+
+  /**
+   * Returns the id of the item of a {@code Stuff} type.
+   *
+   * @param stuff the item type.
+   * @return the id of the item.
+   * @throws IllegalArgumentException if the catalogue has no item for this type.
+   */
+  public int id(Stuff stuff) {
+    int id = stuffIds[stuff.ordinal()];
+    if (id == -1) {
+      throw new IllegalArgumentException("No item for " + stuff);
+    }
+    return id;
+  }
+
+  /**
+   * @param id the id of an item.
+   * @return the shared immutable item.
+   */
+  public Item item(int id) {
+    return items[id];
+  }
+
+  /**
+   * Returns the item of a {@code Stuff} type.
+   *
+   * @param stuff the item type.
+   * @return the shared immutable item.
+   * @throws IllegalArgumentException if the catalogue has no item for this type.
+   */
+  public Item item(Stuff stuff) {
+    return items[id(stuff)];
+  }
+
+  /**
+   * @param id the id of an item.
+   * @return the display name of the item.
+   */
+  public String name(int id) {
+    return names[id];
+  }
+
+  /**
+   * @param id the id of an item.
+   * @return the short code shown in the backpack grid.
+   */
+  public String shortCode(int id) {
+    return codes[id];
+  }
+
+  /**
+   * @param id the id of an item.
+   * @return the rarity of the item.
+   */
+  public Rarity rarity(int id) {
+    return rarities[id];
+  }
+
+  /**
+   * @param id the id of an item.
+   * @return the damage, protection or mana of the item, 0 if its kind has none.
+   */
+  public int stats(int id) {
+    return stats[id];
+  }
+
+  /**
+   * @param id the id of an item.
+   * @return the energy needed to use the item, 0 if its kind has none.
+   */
+  public int cost(int id) {
+    return costs[id];
+  }
+
+  /**
+   * @param id the id of an item.
+   * @return the price of the item at the merchant.
+   */
+  public int price(int id) {
+    return prices[id];
+  }
+
+  /**
+   * Returns the short code of an item by name, as shown by the
+   * {@code toString()} of the items.
+   *
+   * @param name the display name of the item.
+   * @return the short code of the item.
+   * @throws IllegalArgumentException if no item has this name.
+   */
+  public String shortCode(String name) {
+    return codes[id(name)];
+  }
+
+  /** The kinds of items, and the stats each one takes. */
+  private enum Kind {
+    MELEE("melee", true, true), RANGE("range", false, true), ARROW("arrow", true, false),
+    ARMOR("armor", true, false), SHIELD("shield", true, true), MAGIC("magic", true, true),
+    MANA("mana", true, false), CURSE("curse", false, false);
+
+    private final String keyword;
+    private final boolean hasStats;
+    private final boolean hasCost;
+
+    Kind(String keyword, boolean hasStats, boolean hasCost) {
+      this.keyword = keyword;
+      this.hasStats = hasStats;
+      this.hasCost = hasCost;
+    }
+
+    private static Kind of(String keyword) {
+      for (var kind : values()) {
+        if (kind.keyword.equals(keyword)) {
+          return kind;
+        }
+      }
+      throw new IllegalArgumentException("unknown kind " + keyword);
+    }
+
+    private Item create(String name, List<Position> shape, Rarity rarity, int stats, int cost, int price) {
+      return switch (this) {
+        case MELEE -> new MeleeWeapon(name, shape, rarity, stats, cost, price);
+        case RANGE -> new RangeWeapon(name, shape, rarity, cost, price);
+        case ARROW -> new Arrow(name, shape, rarity, stats, price);
+        case ARMOR -> new Armor(name, shape, rarity, stats, price);
+        case SHIELD -> new Shield(name, shape, rarity, stats, cost, price);
+        case MAGIC -> new MagicItem(name, shape, rarity, stats, cost, price);
+        case MANA -> new ManaStone(name, shape, rarity, stats, price);
+        case CURSE -> new Curse(shape);
+      };
+    }
+  }
+
+  /**
+   * A perfect hash of the item names, built by hash and displace: the names
+   * are spread over buckets, then each bucket, the largest first, gets the
+   * first seed that sends its names to free slots. A lookup reads the seed of
+   * its bucket and the id in its slot, then checks the name.
+   * <p>
+   * Names are hashed on 64 bits from their characters: no seed can separate
+   * two names with the same hash, so such names are rejected up front.
+   * </p>
+   */
+  private static final class NameIndex {
+    private static final int MAX_SEED = 1 << 20;
+
+    private final String[] names;
+    private final long[] hashes;
+    private final int[] seeds;
+    private final int[] slots;
+
+    private NameIndex(String[] names) {
+      this.names = names;
+      this.hashes = new long[names.length];
+      var byHash = new HashMap<Long, Integer>();
+      for (int id = 0; id < names.length; id++) {
+        hashes[id] = hash(names[id]);
+        var other = byHash.putIfAbsent(hashes[id], id);
+        if (other != null) {
+          throw new IllegalArgumentException("cannot index " + names[other] + " and " + names[id] + ": same hash");
+        }
+      }
+      int buckets = Integer.highestOneBit(Math.max(1, names.length - 1)) << 1;
+      this.seeds = new int[buckets];
+      this.slots = new int[buckets << 1];
+      Arrays.fill(slots, -1);
+      var byBucket = new ArrayList<List<Integer>>(buckets);
+      for (int b = 0; b < buckets; b++) {
+        byBucket.add(new ArrayList<>());
+      }
+      for (int id = 0; id < names.length; id++) {
+        byBucket.get(bucket(hashes[id])).add(id);
+      }
+      var order = new ArrayList<Integer>(buckets);
+      for (int b = 0; b < buckets; b++) {
+        order.add(b);
+      }
+      order.sort((b1, b2) -> Integer.compare(byBucket.get(b2).size(), byBucket.get(b1).size()));
+      for (int b : order) {
+        var ids = byBucket.get(b);
+        if (!ids.isEmpty()) {
+          seeds[b] = place(ids);
+        }
+      }
+    }
+
+    private int place(List<Integer> ids) {
+      var taken = new int[ids.size()];
+      for (int seed = 1; seed < MAX_SEED; seed++) {
+        int placed = 0;
+        for (; placed < taken.length; placed++) {
+          int slot = slot(hashes[ids.get(placed)], seed);
+          if (slots[slot] != -1) {
+            break;
+          }
+          slots[slot] = ids.get(placed);
+          taken[placed] = slot;
+        }
+        if (placed == taken.length) {
+          return seed;
+        }
+        for (int i = 0; i < placed; i++) {
+          slots[taken[i]] = -1;
+        }
+      }
+      throw new IllegalArgumentException("cannot index the names of " + ids.stream().map(id -> names[id]).toList());
+    }
+
+    private int find(String name) {
+      long hash = hash(name);
+      int id = slots[slot(hash, seeds[bucket(hash)])];
+      return id != -1 && names[id].equals(name) ? id : -1;
+    }
+
+    /** Mixes every character, so names differing in one character always hash apart. */
+    private static long hash(String name) {
+      long hash = name.length();
+      for (int i = 0; i < name.length(); i++) {
+        hash = mix(hash + name.charAt(i));
+      }
+      return hash;
+    }
+
+    private int bucket(long hash) {
+      return (int) (hash >>> 32) & (seeds.length - 1);
+    }
+
+    private int slot(long hash, int seed) {
+      return (int) mix(hash + seed * 0x9E3779B97F4A7C15L) & (slots.length - 1);
+    }
+  }
+
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
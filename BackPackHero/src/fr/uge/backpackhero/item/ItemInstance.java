@@ -2,14 +2,21 @@ package fr.uge.backpackhero.item;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents an instance of an Item in the backpack. Manages variable states
- * such as rotation.
+ * such as rotation, and the affixes that change the stats of the shared base
+ * item.
  */
 public class ItemInstance {
 
+  private static final AtomicInteger SERIALS = new AtomicInteger();
+
   private final Item item;
+  private final int affixes;
+  private final int serial = SERIALS.getAndIncrement();
+  private final Shape[] rotations;
   private int rotationAngle;
   private Position pos;
 
@@ -20,8 +27,21 @@ public class ItemInstance {
    * @throws NullPointerException if the item is null
    */
   public ItemInstance(Item item) {
+    this(item, Affixes.NONE);
+  }
+
+  /**
+   * Creates a new instance of an Item with affixes.
+   *
+   * @param item    the base item
+   * @param affixes the affixes of the instance, encoded with {@link Affixes}
+   * @throws NullPointerException if the item is null
+   */
+  public ItemInstance(Item item, int affixes) {
     Objects.requireNonNull(item);
     this.item = item;
+    this.affixes = affixes;
+    this.rotations = ShapeRegistry.rotations(item.pos());
   }
 
   /**
@@ -36,13 +56,32 @@ public class ItemInstance {
     this.rotationAngle = (this.rotationAngle + 90) % 360;
   }
 
+  /**
+   * Sets the rotation angle directly, bypassing the rotatable check. Used by the
+   * backpack to apply a placement that has already been validated.
+   *
+   * @param rotationAngle the angle in degrees, a multiple of 90
+   */
+  void setRotationAngle(int rotationAngle) {
+    this.rotationAngle = rotationAngle % 360;
+  }
+
   /**
    * Returns the current shape of the item based on its rotation.
    *
    * @return a list of positions representing the rotated shape
    */
   public List<Position> getCurrentShape() {
-    return item.shapeAtRotation(this.rotationAngle);
+    return getShape().cells();
+  }
+
+  /**
+   * Returns the precomputed shape matching the current rotation.
+   *
+   * @return the shared shape, with its size and packed mask
+   */
+  public Shape getShape() {
+    return rotations[ShapeRegistry.rotationIndex(this.rotationAngle)];
   }
 
   /**
@@ -63,6 +102,14 @@ public class ItemInstance {
     return this.rotationAngle;
   }
 
+  /**
+   * Returns the creation rank of this instance, unique among all instances. Used
+   * as an ordering key by the persistent item maps of snapshots.
+   */
+  int serial() {
+    return serial;
+  }
+
   /**
    * Returns the base item.
    *
@@ -72,6 +119,42 @@ public class ItemInstance {
     return this.item;
   }
 
+  /**
+   * Returns the affixes of this instance.
+   *
+   * @return the affixes, encoded with {@link Affixes}
+   */
+  public int getAffixes() {
+    return affixes;
+  }
+
+  /**
+   * Returns the stats of the base item changed by the affixes.
+   *
+   * @return the effective damage, protection or mana, never negative
+   */
+  public int effectiveStats() {
+    return Math.max(0, item.stats() + Affixes.stats(affixes));
+  }
+
+  /**
+   * Returns the energy cost of the base item changed by the affixes.
+   *
+   * @return the effective energy cost, never negative
+   */
+  public int effectiveCost() {
+    return Math.max(0, item.cost() + Affixes.cost(affixes));
+  }
+
+  /**
+   * Returns the price of the base item changed by the affixes.
+   *
+   * @return the effective price, never negative
+   */
+  public int effectivePrice() {
+    return Math.max(0, item.price() + Affixes.price(affixes));
+  }
+
   @Override
   public String toString() {
     return this.item.toString();
@@ -108,12 +191,7 @@ public class ItemInstance {
    * @return the number of columns the item occupies; 0 if the shape is empty.
    */
   public int width() {
-    var shape = getCurrentShape();
-    if (shape.isEmpty())
-      return 0;
-    int maxCol = shape.stream().mapToInt(Position::column).max().getAsInt();
-    int minCol = shape.stream().mapToInt(Position::column).min().getAsInt();
-    return maxCol - minCol + 1;
+    return getShape().width();
   }
 
   /**
@@ -124,12 +202,7 @@ public class ItemInstance {
    * @return the number of rows the item occupies; 0 if the shape is empty.
    */
   public int height() {
-    var shape = getCurrentShape();
-    if (shape.isEmpty())
-      return 0;
-    int maxRow = shape.stream().mapToInt(Position::row).max().getAsInt();
-    int minRow = shape.stream().mapToInt(Position::row).min().getAsInt();
-    return maxRow - minRow + 1;
+    return getShape().height();
   }
 
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+package fr.uge.backpackhero.item;
+
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Persistent map from placed item instances to their encoded placement. The map
+ * is a treap ordered by {@link ItemInstance#serial()} with priorities derived
+ * from the same serial, so its shape only depends on its content. Updates copy
+ * the O(log n) nodes on the path to the changed entry and share the rest with
+ * the previous version.
+ */
+final class ItemTreap {
+
+  /** The empty map. */
+  static final ItemTreap EMPTY = new ItemTreap(null);
+
+  private record Node(ItemInstance instance, int placement, Node left, Node right, int size) {
+    Node(ItemInstance instance, int placement, Node left, Node right) {
+      this(instance, placement, left, right, 1 + sizeOf(left) + sizeOf(right));
+    }
+
+    Node withChildren(Node left, Node right) {
+      return new Node(instance, placement, left, right);
+    }
+  }
+
+  private record Split(Node lower, Node upper) {
+  }
+
+  private final Node root;
+
+  private ItemTreap(Node root) {
+    this.root = root;
+  }
+
+  private static int sizeOf(Node node) {
+    return node == null ? 0 : node.size;
+  }
+
+  private static int priority(int serial) {
+    int h = serial * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * @return the number of entries.
+   */
+  int size() {
+    return sizeOf(root);
+  }
+
+  /**
+   * @return the placement of an instance, or -1 if it is not in the map.
+   */
+  int placementOf(ItemInstance instance) {
+    int key = instance.serial();
+    var node = root;
+    while (node != null) {
+      int cmp = Integer.compare(key, node.instance.serial());
+      if (cmp == 0) {
+        return node.placement;
+      }
+      node = cmp < 0 ? node.left : node.right;
+    }
+    return -1;
+  }
+
+  /**
+   * @return a map where the instance is associated with the placement, replacing
+   *         any previous placement.
+   */
+  ItemTreap put(ItemInstance instance, int placement) {
+    Objects.requireNonNull(instance);
+    return new ItemTreap(insert(without(root, instance.serial()), instance, placement));
+  }
+
+  /**
+   * @return a map without the instance, or this map if it does not contain it.
+   */
+  ItemTreap remove(ItemInstance instance) {
+    Objects.requireNonNull(instance);
+    if (placementOf(instance) < 0) {
+      return this;
+    }
+    return new ItemTreap(without(root, instance.serial()));
+  }
+
+  /**
+   * Visits the entries in increasing serial order.
+   */
+  void forEach(ObjIntConsumer<ItemInstance> action) {
+    forEach(root, action);
+  }
+
+  private static void forEach(Node node, ObjIntConsumer<ItemInstance> action) {
+    if (node == null) {
+      return;
+    }
+    forEach(node.left, action);
+    action.accept(node.instance, node.placement);
+    forEach(node.right, action);
+  }
+
+  private static Node insert(Node node, ItemInstance instance, int placement) {
+    int key = instance.serial();
+    if (node == null || priority(key) > priority(node.instance.serial())) {
+      var split = split(node, key);
+      return new Node(instance, placement, split.lower, split.upper);
+    }
+    if (key < node.instance.serial()) {
+      return node.withChildren(insert(node.left, instance, placement), node.right);
+    }
+    return node.withChildren(node.left, insert(node.right, instance, placement));
+  }
+
+  /** Splits a tree without {@code key} into the keys below and above it. */
+  private static Split split(Node node, int key) {
+    if (node == null) {
+      return new Split(null, null);
+    }
+    if (key < node.instance.serial()) {
+      var split = split(node.left, key);
+      return new Split(split.lower, node.withChildren(split.upper, node.right));
+    }
+    var split = split(node.right, key);
+    return new Split(node.withChildren(node.left, split.lower), split.upper);
+  }
+
+  private static Node without(Node node, int key) {
+    if (node == null) {
+      return null;
+    }
+    int cmp = Integer.compare(key, node.instance.serial());
+    if (cmp == 0) {
+      return merge(node.left, node.right);
+    }
+    if (cmp < 0) {
+      var left = without(node.left, key);
+      return left == node.left ? node : node.withChildren(left, node.right);
+    }
+    var right = without(node.right, key);
+    return right == node.right ? node : node.withChildren(node.left, right);
+  }
+
+  /** Merges two trees where every key of {@code lower} is below {@code upper}. */
+  private static Node merge(Node lower, Node upper) {
+    if (lower == null) {
+      return upper;
+    }
+    if (upper == null) {
+      return lower;
+    }
+    if (priority(lower.instance.serial()) > priority(upper.instance.serial())) {
+      return lower.withChildren(lower.left, merge(lower.right, upper));
+    }
+    return upper.withChildren(merge(lower, upper.left), upper.right);
+  }
+}
@@ -0,0 +1,48 @@
+package fr.uge.backpackhero.item;
+
+/**
+ * The places where the hero finds items. Each context has its own
+ * {@link LootTable} tables: it decides which items can appear there and how
+ * fast rare items become more frequent deeper in the dungeon.
+ */
+public enum LootContext {
+  /** The chests of treasure rooms. */
+  TREASURE(1.5),
+
+  /** The stock of merchants, which never sell free items. */
+  SHOP(1.25),
+
+  /** The items won at the end of a combat. */
+  COMBAT_REWARD(1.25);
+
+  private final double rarityGrowth;
+
+  LootContext(double rarityGrowth) {
+    this.rarityGrowth = rarityGrowth;
+  }
+
+  /**
+   * Returns the factor applied to the weight of a rarity for each floor and
+   * each rarity level above {@link Rarity#COMMON}.
+   *
+   * @return the growth factor, at least 1.
+   */
+  public double rarityGrowth() {
+    return rarityGrowth;
+  }
+
+  /**
+   * Indicates whether an item of the catalogue can never be found in this
+   * context. Curses are never loot.
+   *
+   * @param catalog the catalogue of the item.
+   * @param id      the id of the item.
+   * @return {@code true} if the item is excluded.
+   */
+  public boolean excludes(ItemCatalog catalog, int id) {
+    if (catalog.item(id).isCurse()) {
+      return true;
+    }
+    return this == SHOP && catalog.price(id) == 0;
+  }
+}
@@ -0,0 +1,168 @@
+package fr.uge.backpackhero.item;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+import fr.uge.backpackhero.random.AliasTable;
+
+/**
+ * Draws the items found in the dungeon. For each {@link LootContext} and floor
+ * depth, the items the context does not exclude are compiled once into an
+ * {@link AliasTable}, so a draw costs the same whatever the number of items in
+ * the catalogue, and never needs to be retried.
+ * <p>
+ * A rarity is drawn with the weight of {@link StuffFactory#RARITY_WEIGHTS},
+ * multiplied by the {@link LootContext#rarityGrowth() growth} of the context
+ * once per floor and rarity level, then an item of this rarity uniformly: adding
+ * items of a rarity does not make the rarity itself more frequent. Floors
+ * deeper than {@link #MAX_DEPTH} use the tables of that depth.
+ * </p>
+ */
+public final class LootTable {
+  /** The deepest floor with its own tables, floors being numbered from 0. */
+  public static final int MAX_DEPTH = 9;
+
+  private static final LootContext[] CONTEXTS = LootContext.values();
+  private static final Rarity[] RARITIES = Rarity.values();
+
+  private final ItemCatalog catalog;
+  /** Catalogue ids of the eligible items of each context, or null if none. */
+  private final int[][] ids;
+  /** Tables over {@link #ids}, indexed by context then depth. */
+  private final AliasTable[][] tables;
+
+  /**
+   * Compiles the tables of every context and depth.
+   *
+   * @param catalog the catalogue to draw from.
+   * @throws NullPointerException if {@code catalog} is null.
+   */
+  public LootTable(ItemCatalog catalog) {
+    this.catalog = Objects.requireNonNull(catalog);
+    this.ids = new int[CONTEXTS.length][];
+    this.tables = new AliasTable[CONTEXTS.length][MAX_DEPTH + 1];
+    for (var context : CONTEXTS) {
+      var eligible = new int[catalog.size()];
+      var counts = new int[RARITIES.length];
+      int size = 0;
+      for (int id = 0; id < catalog.size(); id++) {
+        if (!context.excludes(catalog, id) && baseWeight(catalog.rarity(id)) > 0) {
+          eligible[size++] = id;
+          counts[catalog.rarity(id).ordinal()]++;
+        }
+      }
+      if (size == 0) {
+        continue;
+      }
+      ids[context.ordinal()] = Arrays.copyOf(eligible, size);
+      for (int depth = 0; depth <= MAX_DEPTH; depth++) {
+        var weights = new double[size];
+        for (int i = 0; i < size; i++) {
+          var rarity = catalog.rarity(eligible[i]);
+          weights[i] = baseWeight(rarity) * Math.pow(context.rarityGrowth(), rarity.ordinal() * depth)
+              / counts[rarity.ordinal()];
+        }
+        tables[context.ordinal()][depth] = new AliasTable(weights);
+      }
+    }
+  }
+
+  private static final class Standard {
+    private static final LootTable INSTANCE = new LootTable(ItemCatalog.standard());
+  }
+
+  /**
+   * Returns the tables of the standard {@link ItemCatalog}, compiled on first
+   * use.
+   *
+   * @return the standard loot tables.
+   */
+  public static LootTable standard() {
+    return Standard.INSTANCE;
+  }
+
+  private static int baseWeight(Rarity rarity) {
+    return StuffFactory.RARITY_WEIGHTS.getOrDefault(rarity, 0);
+  }
+
+  private AliasTable table(LootContext context, int depth) {
+    Objects.requireNonNull(context);
+    if (depth < 0) {
+      throw new IllegalArgumentException("Negative depth " + depth);
+    }
+    var table = tables[context.ordinal()][Math.min(depth, MAX_DEPTH)];
+    if (table == null) {
+      throw new IllegalStateException("No item can be found in " + context);
+    }
+    return table;
+  }
+
+  /**
+   * Draws the id of an item.
+   *
+   * @param context where the item is found.
+   * @param depth   the floor, numbered from 0.
+   * @param random  the generator, usually split from the loot stream of a run.
+   * @return the catalogue id of the item.
+   * @throws IllegalArgumentException if {@code depth} is negative.
+   * @throws IllegalStateException    if the context excludes every item.
+   */
+  public int drawId(LootContext context, int depth, SplittableRandom random) {
+    Objects.requireNonNull(random);
+    var table = table(context, depth);
+    return ids[context.ordinal()][table.sample(random)];
+  }
+
+  /**
+   * Draws an item.
+   *
+   * @param context where the item is found.
+   * @param depth   the floor, numbered from 0.
+   * @param random  the generator, usually split from the loot stream of a run.
+   * @return the shared item of the catalogue.
+   * @throws IllegalArgumentException if {@code depth} is negative.
+   * @throws IllegalStateException    if the context excludes every item.
+   * @see #drawId(LootContext, int, SplittableRandom)
+   */
+  public Item draw(LootContext context, int depth, SplittableRandom random) {
+    return catalog.item(drawId(context, depth, random));
+  }
+
+  /**
+   * Draws a new instance of an item, with the {@link Affixes} it may roll at
+   * this depth.
+   *
+   * @param context where the item is found.
+   * @param depth   the floor, numbered from 0.
+   * @param random  the generator, usually split from the loot stream of a run.
+   * @return a new instance of a shared item of the catalogue.
+   * @throws IllegalArgumentException if {@code depth} is negative.
+   * @throws IllegalStateException    if the context excludes every item.
+   */
+  public ItemInstance drawInstance(LootContext context, int depth, SplittableRandom random) {
+    var item = draw(context, depth, random);
+    return new ItemInstance(item, Affixes.roll(item, depth, random));
+  }
+
+  /**
+   * Returns the probability of drawing an item.
+   *
+   * @param context where the item is found.
+   * @param depth   the floor, numbered from 0.
+   * @param id      the catalogue id of the item.
+   * @return the probability of the item, 0 if the context excludes it.
+   * @throws IllegalArgumentException if {@code depth} is negative.
+   * @throws IllegalStateException    if the context excludes every item.
+   */
+  public double probability(LootContext context, int depth, int id) {
+    var table = table(context, depth);
+    var eligible = ids[context.ordinal()];
+    for (int i = 0; i < eligible.length; i++) {
+      if (eligible[i] == id) {
+        return table.probability(i);
+      }
+    }
+    return 0;
+  }
+}
@@ -51,15 +51,12 @@ public record MagicItem(String name, List<Position> pos, Rarity rarity, int stat
    *
    * @return A short code representing this magic item.
    *
-   * @throws IllegalArgumentException if no short form is defined for this magic
-   *                                  item name.
+   * @throws IllegalArgumentException if the item is not in the
+   *                                  {@link ItemCatalog}.
    */
   @Override
   public String toString() {
-    return switch (name) {
-    case "Electric Wand" -> "EW";
-    default -> throw new IllegalArgumentException("Unknown magic item type: " + name);
-    };
+    return ItemCatalog.standard().shortCode(name);
   }
 
   /**
@@ -97,10 +94,10 @@ public record MagicItem(String name, List<Position> pos, Rarity rarity, int stat
     Objects.requireNonNull(instance);
     if (!target.estVivant())
       return false;
-    var manaOpt = backpack.getAdjacentItemInstance(instance, item -> item instanceof ManaStone);
+    var manaOpt = backpack.getAdjacentItemInstance(instance, ManaStone.class);
     if (manaOpt.isPresent()) {
       ItemInstance manaInst = manaOpt.get();
-      target.recevoirDegats(stats);
+      target.recevoirDegats(instance.effectiveStats());
       backpack.removeItem(manaInst);
       return true;
     }
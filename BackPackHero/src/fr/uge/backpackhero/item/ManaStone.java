@@ -49,15 +49,12 @@ public record ManaStone(String name, List<Position> pos, Rarity rarity, int stat
    *
    * @return A short code representing this mana stone.
    *
-   * @throws IllegalArgumentException if no short form is defined for this mana
-   *                                  stone name.
+   * @throws IllegalArgumentException if the mana stone is not in the
+   *                                  {@link ItemCatalog}.
    */
   @Override
   public String toString() {
-    return switch (name) {
-    case "Mana Stone" -> "MS";
-    default -> throw new IllegalArgumentException("Unknown magic item type: " + name);
-    };
+    return ItemCatalog.standard().shortCode(name);
   }
 
   /**
@@ -51,16 +51,12 @@ public record MeleeWeapon(String name, List<Position> pos, Rarity rarity, int st
    * Returns a compact identifier for display purposes.
    *
    * @return A short code representing this melee weapon.
-   * @throws IllegalArgumentException if no short form is defined for this weapon
-   *                                  name.
+   * @throws IllegalArgumentException if the weapon is not in the
+   *                                  {@link ItemCatalog}.
    */
   @Override
   public String toString() {
-    return switch (name) {
-    case "Wood Sword" -> "WS";
-    case "Cloud Sword" -> "CS";
-    default -> throw new IllegalArgumentException("Unknown melee weapon type: " + name);
-    };
+    return ItemCatalog.standard().shortCode(name);
   }
 
   /**
@@ -89,9 +85,9 @@ public record MeleeWeapon(String name, List<Position> pos, Rarity rarity, int st
     Objects.requireNonNull(instance);
     if (!target.estVivant())
       return false;
-    if (heros.depenserEnergie(cost)) {
-      int finalDamage = stats;
-      boolean isBoosted = backpack.hasAdjacentItem(instance, item -> item instanceof MeleeWeapon);
+    if (heros.depenserEnergie(instance.effectiveCost())) {
+      int finalDamage = instance.effectiveStats();
+      boolean isBoosted = backpack.hasAdjacentItem(instance, MeleeWeapon.class);
       if (isBoosted) {
         finalDamage *= 2;
       }
@@ -0,0 +1,133 @@
+package fr.uge.backpackhero.item;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Mutable search state of the {@link PackingSolver}: the free cells of a
+ * backpack as bitboards plus, for each cell, the index of the packed item
+ * covering it. Placing and removing an item only touches its own cells, so the
+ * solver can explore a layout and undo it in place.
+ */
+final class PackingLayout {
+  private final BitGrid unlocked;
+  private final BitGrid occupied;
+  private final List<ItemInstance> items;
+  private final Shape[][] rotations;
+  private final int[] placements;
+  /** Index of the packed item covering each cell plus one, 0 if none. */
+  private final int[] owners = new int[BitGrid.SIZE * BitGrid.SIZE];
+  private final int minRow;
+  private final int maxRow;
+
+  /**
+   * Creates an empty layout over the free tiles of a backpack. Items already
+   * placed in the backpack stay where they are and block their tiles.
+   */
+  PackingLayout(BackPack backpack, List<ItemInstance> items) {
+    Objects.requireNonNull(backpack);
+    this.items = List.copyOf(items);
+    this.unlocked = backpack.unlockedGrid();
+    this.occupied = backpack.occupiedGrid();
+    this.minRow = backpack.getMinRow();
+    this.maxRow = backpack.getHeight() - 1;
+    this.rotations = new Shape[this.items.size()][];
+    this.placements = new int[this.items.size()];
+    for (int i = 0; i < rotations.length; i++) {
+      rotations[i] = ShapeRegistry.rotations(this.items.get(i).getItem().pos());
+      placements[i] = -1;
+    }
+  }
+
+  int itemCount() {
+    return items.size();
+  }
+
+  ItemInstance instance(int index) {
+    return items.get(index);
+  }
+
+  Item item(int index) {
+    return items.get(index).getItem();
+  }
+
+  Shape shape(int index, int quarterTurns) {
+    return rotations[index][quarterTurns];
+  }
+
+  int minRow() {
+    return minRow;
+  }
+
+  int maxRow() {
+    return maxRow;
+  }
+
+  /**
+   * @return the placement of an item, or -1 if it is not packed.
+   */
+  int placement(int index) {
+    return placements[index];
+  }
+
+  /**
+   * @return the anchor columns where the shape fits on free tiles at the given
+   *         row, as returned by {@link BitGrid#anchors(long, int, BitGrid)}.
+   */
+  long anchors(long shape, int row) {
+    return unlocked.anchors(shape, row, occupied);
+  }
+
+  /**
+   * @return {@code true} if the tile is unlocked and not covered by any item.
+   */
+  boolean isFree(int row, int column) {
+    return unlocked.get(row, column) && !occupied.get(row, column);
+  }
+
+  /**
+   * @return the index of the packed item covering the tile, or -1 if none.
+   */
+  int ownerAt(int row, int column) {
+    if (!BitGrid.inBounds(row, column)) {
+      return -1;
+    }
+    return owners[cellIndex(row, column)] - 1;
+  }
+
+  /** Packs an item at a placement previously returned by the anchors. */
+  void place(int index, int placement) {
+    var shape = rotations[index][Placements.quarterTurns(placement)];
+    int row = Placements.row(placement);
+    int column = Placements.column(placement);
+    occupied.setAll(shape.mask(), row, column);
+    for (var p : shape.cells()) {
+      owners[cellIndex(row + p.row(), column + p.column())] = index + 1;
+    }
+    placements[index] = placement;
+  }
+
+  /** Removes a packed item from the layout. */
+  void remove(int index) {
+    int placement = placements[index];
+    var shape = rotations[index][Placements.quarterTurns(placement)];
+    int row = Placements.row(placement);
+    int column = Placements.column(placement);
+    occupied.clearAll(shape.mask(), row, column);
+    for (var p : shape.cells()) {
+      owners[cellIndex(row + p.row(), column + p.column())] = 0;
+    }
+    placements[index] = -1;
+  }
+
+  /**
+   * @return a copy of the current placement of every item.
+   */
+  int[] placements() {
+    return placements.clone();
+  }
+
+  private static int cellIndex(int row, int column) {
+    return (row + BitGrid.ORIGIN) * BitGrid.SIZE + column + BitGrid.ORIGIN;
+  }
+}
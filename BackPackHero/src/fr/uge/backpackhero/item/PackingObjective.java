@@ -0,0 +1,118 @@
+package fr.uge.backpackhero.item;
+
+import java.util.Arrays;
+
+/**
+ * Secondary goal of the {@link PackingSolver}. The solver always maximizes the
+ * number of packed items first; among layouts packing the same number of items,
+ * it keeps the one with the highest objective score.
+ */
+public enum PackingObjective {
+
+  /** No preference between layouts packing the same number of items. */
+  NONE {
+    @Override
+    int score(PackingLayout layout) {
+      return 0;
+    }
+
+    @Override
+    int upperBound(PackingLayout layout) {
+      return 0;
+    }
+  },
+
+  /** Maximizes the number of pairs of adjacent melee weapons. */
+  MELEE_ADJACENT {
+    @Override
+    int score(PackingLayout layout) {
+      int n = layout.itemCount();
+      var seen = new boolean[n];
+      int pairs = 0;
+      for (int i = 0; i < n; i++) {
+        int placement = layout.placement(i);
+        if (placement < 0 || !(layout.item(i) instanceof MeleeWeapon)) {
+          continue;
+        }
+        Arrays.fill(seen, false);
+        int row = Placements.row(placement);
+        int column = Placements.column(placement);
+        for (var p : layout.shape(i, Placements.quarterTurns(placement)).cells()) {
+          int r = row + p.row();
+          int c = column + p.column();
+          pairs += countNewMelee(layout, i, seen, r - 1, c) + countNewMelee(layout, i, seen, r + 1, c)
+              + countNewMelee(layout, i, seen, r, c - 1) + countNewMelee(layout, i, seen, r, c + 1);
+        }
+      }
+      return pairs;
+    }
+
+    private static int countNewMelee(PackingLayout layout, int self, boolean[] seen, int row, int column) {
+      int owner = layout.ownerAt(row, column);
+      if (owner <= self || seen[owner] || !(layout.item(owner) instanceof MeleeWeapon)) {
+        return 0;
+      }
+      seen[owner] = true;
+      return 1;
+    }
+
+    @Override
+    int upperBound(PackingLayout layout) {
+      int melee = 0;
+      for (int i = 0; i < layout.itemCount(); i++) {
+        if (layout.item(i) instanceof MeleeWeapon) {
+          melee++;
+        }
+      }
+      return melee * (melee - 1) / 2;
+    }
+  },
+
+  /**
+   * Maximizes the number of free tiles lying directly below armor pieces, which
+   * is what {@code Heros} turns into its free-space protection bonus.
+   */
+  ARMOR_OVER_EMPTY {
+    @Override
+    int score(PackingLayout layout) {
+      int total = 0;
+      for (int i = 0; i < layout.itemCount(); i++) {
+        int placement = layout.placement(i);
+        if (placement < 0 || !layout.item(i).isArmor()) {
+          continue;
+        }
+        int row = Placements.row(placement);
+        int column = Placements.column(placement);
+        for (var p : layout.shape(i, Placements.quarterTurns(placement)).cells()) {
+          int c = column + p.column();
+          for (int r = row + p.row() + 1; layout.isFree(r, c); r++) {
+            total++;
+          }
+        }
+      }
+      return total;
+    }
+
+    @Override
+    int upperBound(PackingLayout layout) {
+      int depth = layout.maxRow() - layout.minRow();
+      int total = 0;
+      for (int i = 0; i < layout.itemCount(); i++) {
+        if (layout.item(i).isArmor()) {
+          total += layout.shape(i, 0).cells().size() * depth;
+        }
+      }
+      return total;
+    }
+  };
+
+  /**
+   * @return the objective score of the items currently packed in the layout.
+   */
+  abstract int score(PackingLayout layout);
+
+  /**
+   * @return a value no layout of the same items can exceed.
+   */
+  abstract int upperBound(PackingLayout layout);
+}
@@ -0,0 +1,51 @@
+package fr.uge.backpackhero.item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Layout found by the {@link PackingSolver}.
+ *
+ * @param placements     the packed items with their placement, encoded with
+ *                       {@link Placements}
+ * @param unplaced       the items that could not be packed
+ * @param objectiveScore the score of the layout for the requested objective
+ * @param optimal        {@code true} if the search completed within its time
+ *                       budget, so no better layout exists
+ */
+public record PackingResult(Map<ItemInstance, Integer> placements, List<ItemInstance> unplaced, int objectiveScore,
+    boolean optimal) {
+
+  /**
+   * Validates the result and makes its collections unmodifiable.
+   *
+   * @throws NullPointerException if a collection is {@code null}
+   */
+  public PackingResult {
+    placements = Collections.unmodifiableMap(new LinkedHashMap<>(Objects.requireNonNull(placements)));
+    unplaced = List.copyOf(unplaced);
+  }
+
+  /**
+   * Places every packed item in the backpack.
+   *
+   * @param backpack the backpack the layout was computed for
+   * @return the items left out of the backpack: the unplaced ones and any item
+   *         whose placement is no longer legal
+   * @throws NullPointerException if {@code backpack} is {@code null}
+   */
+  public List<ItemInstance> applyTo(BackPack backpack) {
+    Objects.requireNonNull(backpack);
+    var leftOver = new ArrayList<ItemInstance>(unplaced);
+    placements.forEach((instance, placement) -> {
+      if (!backpack.add(instance, placement)) {
+        leftOver.add(instance);
+      }
+    });
+    return leftOver;
+  }
+}
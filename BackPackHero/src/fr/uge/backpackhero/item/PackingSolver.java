@@ -0,0 +1,230 @@
+package fr.uge.backpackhero.item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Automatic backpack packing. The solver explores every rotation and anchor of
+ * each item over the free tiles of a backpack with a depth-first branch and
+ * bound:
+ * <ul>
+ * <li>layouts are compared first by number of packed items, then by the score
+ * of a {@link PackingObjective};</li>
+ * <li>a branch is cut as soon as packing all its remaining items could not beat
+ * the best layout found so far;</li>
+ * <li>identical items are interchangeable, so they are packed in increasing
+ * placement order, and rotations giving the same shape are tried once.</li>
+ * </ul>
+ * The search stops when its time budget runs out and returns the best layout
+ * found.
+ */
+public final class PackingSolver {
+
+  /** Number of search nodes between two checks of the clock. */
+  private static final int CLOCK_PERIOD = 1 << 10;
+
+  private final PackingLayout layout;
+  private final PackingObjective objective;
+  private final int[] order;
+  private final int[][] turns;
+  private final boolean[] sameAsPrevious;
+  private final int objectiveBound;
+  private final long deadline;
+  private int[] best;
+  private long bestScore = -1;
+  private int bestObjective;
+  private long nodes;
+  private boolean stopped;
+  /** Set when the future of {@link #solveAsync} is cancelled. */
+  private volatile boolean cancelled;
+
+  private PackingSolver(PackingLayout layout, PackingObjective objective, long budgetMillis) {
+    this.layout = layout;
+    this.objective = objective;
+    this.deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+    this.objectiveBound = objective.upperBound(layout);
+    int n = layout.itemCount();
+    this.order = searchOrder(layout);
+    this.best = layout.placements();
+    this.turns = new int[n][];
+    this.sameAsPrevious = new boolean[n];
+    for (int i = 0; i < n; i++) {
+      turns[i] = distinctTurns(layout.instance(i));
+    }
+    for (int depth = 1; depth < n; depth++) {
+      sameAsPrevious[depth] = identical(layout.instance(order[depth - 1]), layout.instance(order[depth]));
+    }
+  }
+
+  /**
+   * Packs items in the free tiles of a backpack. The backpack itself is not
+   * modified; use {@link PackingResult#applyTo(BackPack)} to apply the layout.
+   *
+   * @param backpack     the backpack to pack, usually emptied with
+   *                     {@link BackPack#removeAllItems()}
+   * @param items        the items to pack
+   * @param objective    the objective used to break ties between layouts
+   * @param budgetMillis the time budget of the search, in milliseconds
+   * @return the best layout found within the time budget
+   * @throws NullPointerException     if an argument is {@code null}
+   * @throws IllegalArgumentException if {@code budgetMillis < 0}
+   */
+  public static PackingResult solve(BackPack backpack, List<ItemInstance> items, PackingObjective objective,
+      long budgetMillis) {
+    return prepare(backpack, items, objective, budgetMillis).run();
+  }
+
+  /**
+   * Same as {@link #solve(BackPack, List, PackingObjective, long)} but runs the
+   * search on a worker thread. The backpack is read before this method returns,
+   * so it can be modified while the search runs. Cancelling the future stops
+   * the search at its next check of the clock, freeing the worker thread.
+   *
+   * @return a future completed with the best layout found
+   * @throws NullPointerException     if an argument is {@code null}
+   * @throws IllegalArgumentException if {@code budgetMillis < 0}
+   */
+  public static CompletableFuture<PackingResult> solveAsync(BackPack backpack, List<ItemInstance> items,
+      PackingObjective objective, long budgetMillis) {
+    var solver = prepare(backpack, items, objective, budgetMillis);
+    var future = CompletableFuture.supplyAsync(solver::run);
+    // cancel(true) does not interrupt the worker of a CompletableFuture
+    future.whenComplete((result, failure) -> {
+      if (future.isCancelled()) {
+        solver.cancelled = true;
+      }
+    });
+    return future;
+  }
+
+  private static PackingSolver prepare(BackPack backpack, List<ItemInstance> items, PackingObjective objective,
+      long budgetMillis) {
+    Objects.requireNonNull(backpack);
+    Objects.requireNonNull(items);
+    Objects.requireNonNull(objective);
+    if (budgetMillis < 0) {
+      throw new IllegalArgumentException("Time budget cannot be negative.");
+    }
+    return new PackingSolver(new PackingLayout(backpack, items), objective, budgetMillis);
+  }
+
+  /** Big items first: they have the fewest placements, which prunes early. */
+  private static int[] searchOrder(PackingLayout layout) {
+    var indices = new ArrayList<Integer>();
+    for (int i = 0; i < layout.itemCount(); i++) {
+      indices.add(i);
+    }
+    indices.sort(Comparator.<Integer>comparingInt(i -> -layout.shape(i, 0).cells().size())
+        .thenComparing(i -> layout.item(i).name()));
+    return indices.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static boolean identical(ItemInstance a, ItemInstance b) {
+    return a.getItem().equals(b.getItem()) && a.getAffixes() == b.getAffixes() && (a.getItem().rotatable()
+        || a.getRotationAngle() == b.getRotationAngle());
+  }
+
+  private static int[] distinctTurns(ItemInstance instance) {
+    var item = instance.getItem();
+    if (!item.rotatable()) {
+      return new int[] { ShapeRegistry.rotationIndex(instance.getRotationAngle()) };
+    }
+    var rotations = ShapeRegistry.rotations(item.pos());
+    var result = new int[ShapeRegistry.ROTATIONS];
+    int size = 0;
+    for (int turn = 0; turn < ShapeRegistry.ROTATIONS; turn++) {
+      boolean duplicate = false;
+      for (int i = 0; i < size; i++) {
+        duplicate |= rotations[result[i]].mask() == rotations[turn].mask();
+      }
+      if (!duplicate) {
+        result[size++] = turn;
+      }
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  private PackingResult run() {
+    search(0, 0);
+    var placements = new LinkedHashMap<ItemInstance, Integer>();
+    var unplaced = new ArrayList<ItemInstance>();
+    for (int i = 0; i < layout.itemCount(); i++) {
+      if (best[i] >= 0) {
+        placements.put(layout.instance(i), best[i]);
+      } else {
+        unplaced.add(layout.instance(i));
+      }
+    }
+    return new PackingResult(placements, unplaced, bestObjective, !stopped);
+  }
+
+  private long score(int packed, int objectiveScore) {
+    return (long) packed * (objectiveBound + 1L) + objectiveScore;
+  }
+
+  private void search(int depth, int packed) {
+    if (stopped || outOfTime()) {
+      return;
+    }
+    int n = order.length;
+    if (depth == n) {
+      int objectiveScore = objective.score(layout);
+      long score = score(packed, objectiveScore);
+      if (score > bestScore) {
+        bestScore = score;
+        bestObjective = objectiveScore;
+        best = layout.placements();
+      }
+      return;
+    }
+    if (score(packed + n - depth, objectiveBound) <= bestScore) {
+      return;
+    }
+    int index = order[depth];
+    int lowest = -1;
+    if (sameAsPrevious[depth]) {
+      lowest = layout.placement(order[depth - 1]);
+      if (lowest < 0) {
+        // the previous copy was left out, so this one is too
+        search(depth + 1, packed);
+        return;
+      }
+    }
+    for (int turn : turns[index]) {
+      long mask = layout.shape(index, turn).mask();
+      int fromRow = Math.max(layout.minRow() - BitGrid.shapeTop(mask), -BitGrid.ORIGIN);
+      int toRow = layout.maxRow() - BitGrid.shapeHeight(mask) + 1;
+      for (int row = fromRow; row <= toRow; row++) {
+        long anchors = layout.anchors(mask, row);
+        while (anchors != 0L) {
+          int column = Long.numberOfTrailingZeros(anchors) - BitGrid.ORIGIN;
+          anchors &= anchors - 1;
+          int placement = Placements.encode(turn, row, column);
+          if (placement <= lowest) {
+            continue;
+          }
+          layout.place(index, placement);
+          search(depth + 1, packed + 1);
+          layout.remove(index);
+          if (stopped) {
+            return;
+          }
+        }
+      }
+    }
+    search(depth + 1, packed);
+  }
+
+  private boolean outOfTime() {
+    if (++nodes % CLOCK_PERIOD == 0
+        && (System.nanoTime() - deadline > 0 || cancelled)) {
+      stopped = true;
+    }
+    return stopped;
+  }
+}
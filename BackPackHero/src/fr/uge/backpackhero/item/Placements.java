@@ -0,0 +1,127 @@
+package fr.uge.backpackhero.item;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Encoding of an item placement (anchor and rotation) into a single
+ * {@code int}, as returned by {@link BackPack#legalPlacements(ItemInstance)}.
+ * Bits 0-7 hold the anchor column, bits 8-15 the anchor row (both offset to be
+ * non-negative) and bits 16-17 the number of quarter turns.
+ */
+public final class Placements {
+
+  private Placements() {
+  }
+
+  /**
+   * Encodes a placement.
+   *
+   * @param quarterTurns the rotation, in quarter turns clockwise (0 to 3)
+   * @param row          the anchor row
+   * @param column       the anchor column
+   * @return the encoded placement
+   * @throws IllegalArgumentException if a value is out of range
+   */
+  public static int encode(int quarterTurns, int row, int column) {
+    if (quarterTurns < 0 || quarterTurns >= ShapeRegistry.ROTATIONS || !BitGrid.inBounds(row, column)) {
+      throw new IllegalArgumentException("Invalid placement " + quarterTurns + " " + row + " " + column);
+    }
+    return quarterTurns << 16 | (row + BitGrid.ORIGIN) << 8 | (column + BitGrid.ORIGIN);
+  }
+
+  /**
+   * @return the anchor row of an encoded placement.
+   */
+  public static int row(int placement) {
+    return ((placement >>> 8) & 0xFF) - BitGrid.ORIGIN;
+  }
+
+  /**
+   * @return the anchor column of an encoded placement.
+   */
+  public static int column(int placement) {
+    return (placement & 0xFF) - BitGrid.ORIGIN;
+  }
+
+  /**
+   * @return the rotation angle, in degrees, of an encoded placement.
+   */
+  public static int rotation(int placement) {
+    return quarterTurns(placement) * 90;
+  }
+
+  /**
+   * @return the number of quarter turns of an encoded placement.
+   */
+  public static int quarterTurns(int placement) {
+    return (placement >>> 16) & 0x3;
+  }
+
+  /**
+   * @return the anchor of an encoded placement.
+   */
+  public static Position anchor(int placement) {
+    return new Position(row(placement), column(placement));
+  }
+
+  /**
+   * Enumerates every legal placement of an item in one sweep over an unlocked
+   * and an occupied bitboard. Each distinct rotation of the item is tried (only
+   * the current one if the item cannot rotate); rotations giving the same shape
+   * as an earlier one are skipped. Curses may cover occupied tiles.
+   *
+   * @param minRow the lowest unlocked row
+   * @param maxRow the highest unlocked row
+   */
+  static int[] sweep(ItemInstance instance, BitGrid unlocked, BitGrid occupied, int minRow, int maxRow) {
+    var item = instance.getItem();
+    var rotations = ShapeRegistry.rotations(item.pos());
+    var excluded = item.isCurse() ? null : occupied;
+    int current = ShapeRegistry.rotationIndex(instance.getRotationAngle());
+    int firstTurn = item.rotatable() ? 0 : current;
+    int lastTurn = item.rotatable() ? ShapeRegistry.ROTATIONS - 1 : current;
+    var result = new int[16];
+    int size = 0;
+    for (int turn = firstTurn; turn <= lastTurn; turn++) {
+      if (isDuplicateRotation(rotations, turn)) {
+        continue;
+      }
+      long mask = rotations[turn].mask();
+      // anchors whose shape leaves the unlocked rows cannot fit
+      int fromRow = Math.max(minRow - BitGrid.shapeTop(mask), -BitGrid.ORIGIN);
+      int toRow = maxRow - BitGrid.shapeHeight(mask) + 1;
+      for (int row = fromRow; row <= toRow; row++) {
+        long anchors = unlocked.anchors(mask, row, excluded);
+        while (anchors != 0L) {
+          int column = Long.numberOfTrailingZeros(anchors) - BitGrid.ORIGIN;
+          if (size == result.length) {
+            result = Arrays.copyOf(result, size * 2);
+          }
+          result[size++] = encode(turn, row, column);
+          anchors &= anchors - 1;
+        }
+      }
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  private static boolean isDuplicateRotation(Shape[] rotations, int turn) {
+    for (int i = 0; i < turn; i++) {
+      if (rotations[i].mask() == rotations[turn].mask()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns a human-readable form of an encoded placement.
+   *
+   * @param placement the encoded placement
+   * @return a string such as {@code "(row: 1, column: 2) @90"}
+   */
+  public static String toString(int placement) {
+    return Objects.toString(anchor(placement)) + " @" + rotation(placement);
+  }
+}
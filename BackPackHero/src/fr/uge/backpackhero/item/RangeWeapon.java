@@ -48,11 +48,7 @@ public record RangeWeapon(String name, List<Position> pos, Rarity rarity, int co
    */
   @Override
   public String toString() {
-    return switch (name) {
-    case "Composite Bow" -> "CB";
-    case "Mouse Bow" -> "MB";
-    default -> throw new IllegalArgumentException("Unknown ranged weapon type: " + name);
-    };
+    return ItemCatalog.standard().shortCode(name);
   }
 
   @Override
@@ -63,12 +59,11 @@ public record RangeWeapon(String name, List<Position> pos, Rarity rarity, int co
     Objects.requireNonNull(target);
     if (!target.estVivant())
       return false;
-    if (heros.depenserEnergie(cost)) {
-      var arrowOpt = backpack.getAdjacentItemInstance(instance, item -> item instanceof Arrow);
+    if (heros.depenserEnergie(instance.effectiveCost())) {
+      var arrowOpt = backpack.getAdjacentItemInstance(instance, Arrow.class);
       if (arrowOpt.isPresent()) {
         ItemInstance arrowInst = arrowOpt.get();
-        Arrow arrow = (Arrow) arrowInst.getItem();
-        target.recevoirDegats(arrow.stats());
+        target.recevoirDegats(arrowInst.effectiveStats());
         backpack.removeItem(arrowInst);
         return true;
       }
@@ -0,0 +1,49 @@
+package fr.uge.backpackhero.item;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable description of an item shape at one rotation. Instances are built
+ * once per distinct shape by {@link ShapeRegistry} and shared by every item
+ * using that shape.
+ *
+ * @param cells  the relative positions occupied by the shape
+ * @param width  the number of columns spanned by the shape
+ * @param height the number of rows spanned by the shape
+ * @param mask   the shape packed in an 8x8 bitmask, byte {@code i} holding the
+ *               columns occupied by relative row {@code i}
+ */
+public record Shape(List<Position> cells, int width, int height, long mask) {
+
+  /**
+   * Compact constructor with validation.
+   *
+   * @throws NullPointerException     if {@code cells} is null.
+   * @throws IllegalArgumentException if width or height is negative.
+   */
+  public Shape {
+    cells = List.copyOf(Objects.requireNonNull(cells));
+    if (width < 0 || height < 0) {
+      throw new IllegalArgumentException("width and height cant be negative");
+    }
+  }
+
+  /**
+   * Builds the shape description of a list of relative positions.
+   *
+   * @param cells the relative positions, all within {@code [0, 8)}
+   * @return the shape with its size and packed mask
+   * @throws IllegalArgumentException if a position does not fit in 8x8
+   */
+  static Shape of(List<Position> cells) {
+    if (cells.isEmpty()) {
+      return new Shape(cells, 0, 0, 0L);
+    }
+    int minRow = cells.stream().mapToInt(Position::row).min().getAsInt();
+    int maxRow = cells.stream().mapToInt(Position::row).max().getAsInt();
+    int minCol = cells.stream().mapToInt(Position::column).min().getAsInt();
+    int maxCol = cells.stream().mapToInt(Position::column).max().getAsInt();
+    return new Shape(cells, maxCol - minCol + 1, maxRow - minRow + 1, BitGrid.pack(cells));
+  }
+}
@@ -0,0 +1,86 @@
+package fr.uge.backpackhero.item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry computing the four rotations of every distinct item shape once.
+ * The returned {@link Shape} instances are immutable and shared, so looking up
+ * a rotation never allocates after the first request for a given shape.
+ */
+public final class ShapeRegistry {
+
+  /** Number of quarter turns an item can take. */
+  static final int ROTATIONS = 4;
+
+  private static final ConcurrentHashMap<List<Position>, Shape[]> SHAPES = new ConcurrentHashMap<>();
+
+  private ShapeRegistry() {
+  }
+
+  /**
+   * Returns the shape of {@code base} rotated by the given angle.
+   *
+   * @param base     the relative positions of the shape at rotation 0
+   * @param rotation the rotation angle in degrees, a multiple of 90
+   * @return the shared rotated shape
+   * @throws NullPointerException if {@code base} is null
+   */
+  public static Shape get(List<Position> base, int rotation) {
+    return rotations(base)[rotationIndex(rotation)];
+  }
+
+  /**
+   * Returns the table of the four rotations of a shape, index {@code i} holding
+   * the shape rotated {@code i} quarter turns clockwise. The array is shared and
+   * must not be modified.
+   */
+  static Shape[] rotations(List<Position> base) {
+    Objects.requireNonNull(base);
+    var shapes = SHAPES.get(base);
+    if (shapes != null) {
+      return shapes;
+    }
+    return SHAPES.computeIfAbsent(List.copyOf(base), ShapeRegistry::computeRotations);
+  }
+
+  /**
+   * Converts an angle in degrees to a quarter-turn index. Negative angles map to
+   * the unrotated shape.
+   */
+  static int rotationIndex(int rotation) {
+    int times = (rotation % 360) / 90;
+    return times < 0 ? 0 : times;
+  }
+
+  private static Shape[] computeRotations(List<Position> base) {
+    var shapes = new Shape[ROTATIONS];
+    var cells = base;
+    shapes[0] = Shape.of(cells);
+    for (int i = 1; i < ROTATIONS; i++) {
+      cells = rotate90(cells);
+      shapes[i] = Shape.of(cells);
+    }
+    return shapes;
+  }
+
+  /**
+   * Rotates the shape 90 degrees clockwise and normalizes it to start at (0,0).
+   *
+   * @param shape the original shape
+   * @return the rotated and normalized shape
+   */
+  private static List<Position> rotate90(List<Position> shape) {
+    var rotated = new ArrayList<Position>();
+    for (var p : shape) {
+      rotated.add(new Position(p.column(), -p.row()));
+    }
+
+    int minR = rotated.stream().mapToInt(Position::row).min().orElse(0);
+    int minC = rotated.stream().mapToInt(Position::column).min().orElse(0);
+
+    return rotated.stream().map(p -> new Position(p.row() - minR, p.column() - minC)).toList();
+  }
+}
@@ -50,15 +50,12 @@ public record Shield(String name, List<Position> pos, Rarity rarity, int stats,
    * Returns a compact identifier for display purposes.
    *
    * @return A short code representing this shield.
-   * @throws IllegalArgumentException if no short form is defined for this shield
-   *                                  name.
+   * @throws IllegalArgumentException if the shield is not in the
+   *                                  {@link ItemCatalog}.
    */
   @Override
   public String toString() {
-    return switch (name) {
-    case "Rough Buckler" -> "RB";
-    default -> throw new IllegalArgumentException("Je connais pas ca c'est quoi ? ");
-    };
+    return ItemCatalog.standard().shortCode(name);
   }
 
   @Override
@@ -67,8 +64,8 @@ public record Shield(String name, List<Position> pos, Rarity rarity, int stats,
     Objects.requireNonNull(backpack);
     Objects.requireNonNull(self);
     Objects.requireNonNull(heros);
-    if (heros.depenserEnergie(cost)) {
-      heros.ajouterProtection(stats);
+    if (heros.depenserEnergie(self.effectiveCost())) {
+      heros.ajouterProtection(self.effectiveStats());
       return true;
     }
     return false;
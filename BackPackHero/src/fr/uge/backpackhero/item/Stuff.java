@@ -1,54 +1,66 @@
 package fr.uge.backpackhero.item;
 
 /**
- * Enumeration listing all known item types available for generation in the game.
- * Each item type is associated with a specific {@code Rarity}.
+ * Enumeration naming the item types the code refers to directly. Each type is
+ * bound by name to an item of the {@link ItemCatalog}, which defines its stats
+ * and its {@code Rarity}.
  */
 public enum Stuff {
 	/** A common melee weapon. */
-    WoodSword(Rarity.COMMON),
+    WoodSword("Wood Sword"),
     
     /** An uncommon ranged weapon. */
-    MouseBow(Rarity.UNCOMMON),
+    MouseBow("Mouse Bow"),
     
     /** A common consumable item (implied, based on name). */
-    ShortArrow(Rarity.COMMON),
+    ShortArrow("Short Arrow"),
     
     /** A rare piece of armor. */
-    LeatherCap(Rarity.RARE),
+    LeatherCap("Leather Cap"),
     
     /** A common shield. */
-    RoughBuckler(Rarity.COMMON),
+    RoughBuckler("Rough Buckler"),
     
     /** An uncommon magic item. */
-    ElectricWand(Rarity.UNCOMMON),
+    ElectricWand("Electric Wand"),
     
     /** A legendary melee weapon. */
-    CloudSword(Rarity.LEGENDARY),
+    CloudSword("Cloud Sword"),
     
     /** A special item representing a negative effect or malus. */
-    Curse(Rarity.CURSE),
+    Curse("Curse"),
     
     /** A common consumable item (implied, based on name). */
-    ManaStone(Rarity.COMMON);
+    ManaStone("Mana Stone");
 
-    private final Rarity rarity;
+    private final String displayName;
 
     /**
-     * Constructs a {@code Stuff} type with its corresponding rarity.
+     * Constructs a {@code Stuff} type bound to an item of the catalogue.
      *
-     * @param rarity The rarity level associated with this item type.
+     * @param displayName The name of the item in the {@link ItemCatalog}.
      */
-    Stuff(Rarity rarity) {
-        this.rarity = rarity;
+    Stuff(String displayName) {
+        this.displayName = displayName;
     }
 
     /**
-     * Returns the rarity level of this specific item type.
+     * Returns the name of the item of this type in the {@link ItemCatalog}.
+     *
+     * @return The display name of the item.
+     */
+    public String displayName() {
+        return displayName;
+    }
+
+    /**
+     * Returns the rarity level of this specific item type, as defined by the
+     * standard {@link ItemCatalog}.
      *
      * @return The {@code Rarity} of the item.
      */
     public Rarity rarity() {
-        return rarity;
+        var catalog = ItemCatalog.standard();
+        return catalog.rarity(catalog.id(this));
     }
 }
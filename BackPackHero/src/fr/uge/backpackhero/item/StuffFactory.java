@@ -1,10 +1,12 @@
 package fr.uge.backpackhero.item;
 
 import java.util.Arrays;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import fr.uge.backpackhero.random.AliasTable;
 
 /**
  * A factory class responsible for creating concrete {@code Item} objects based
@@ -18,121 +20,112 @@ public class StuffFactory {
    */
   public static final Map<Rarity, Integer> RARITY_WEIGHTS = Map.of(Rarity.COMMON, 800, Rarity.UNCOMMON, 150,
       Rarity.RARE, 45, Rarity.LEGENDARY, 5);
-  private final Random random = new Random();
+
+  private static final ItemCatalog CATALOG = ItemCatalog.standard();
+  private static final Rarity[] RARITIES = Rarity.values();
+  /** Rarities in declaration order, weighted by {@link #RARITY_WEIGHTS}. */
+  private static final AliasTable RARITY_TABLE = new AliasTable(
+      Arrays.stream(RARITIES).mapToDouble(r -> RARITY_WEIGHTS.getOrDefault(r, 0)).toArray());
+  /** Catalogue ids of the items of each rarity, indexed by ordinal, in file order. */
+  private static final int[][] IDS_BY_RARITY = Arrays.stream(RARITIES)
+      .map(r -> IntStream.range(0, CATALOG.size()).filter(id -> CATALOG.rarity(id) == r).toArray())
+      .toArray(int[][]::new);
+
+  private final SplittableRandom random;
 
   /**
-   * Creates a new instance of the {@code StuffFactory}.
+   * Creates a new instance of the {@code StuffFactory} with an unseeded
+   * generator.
    */
   public StuffFactory() {
+    this(new SplittableRandom());
+  }
+
+  /**
+   * Creates a factory drawing its items from the given generator.
+   *
+   * @param random the generator, usually split from the loot stream of a run
+   * @throws NullPointerException if {@code random} is {@code null}
+   */
+  public StuffFactory(SplittableRandom random) {
+    this.random = Objects.requireNonNull(random);
   }
 
   /**
    * Randomly selects a {@code Rarity} level based on the defined
-   * {@code RARITY_WEIGHTS}.
+   * {@code RARITY_WEIGHTS}, in constant time from a precomputed alias table.
    *
    * @return A randomly determined {@code Rarity}.
-   * @throws IllegalStateException if the random roll is outside the cumulative
-   *                               weight range.
    */
   private Rarity randomRarity() {
-    int total = RARITY_WEIGHTS.values().stream().mapToInt(i -> i).sum();
-    int roll = random.nextInt(total);
-
-    int cumulative = 0;
-    for (var entry : RARITY_WEIGHTS.entrySet()) {
-      cumulative += entry.getValue();
-      if (roll < cumulative) {
-        return entry.getKey();
-      }
-    }
-    throw new IllegalStateException("Unexpected rarity roll");
+    return RARITIES[RARITY_TABLE.sample(random)];
   }
 
   /**
-   * Randomly selects an item type ({@code Stuff}) that matches the given rarity
+   * Randomly selects an item of the catalogue that matches the given rarity
    * level.
    *
    * @param rarity The target rarity level.
-   * @return A randomly selected {@code Stuff} enumeration constant of the
-   *         specified rarity.
+   * @return The catalogue id of a randomly selected item of the specified
+   *         rarity.
+   * @throws IllegalStateException if no item has this rarity.
    */
-  private Stuff randomStuffOfRarity(Rarity rarity) {
-    var list = Arrays.stream(Stuff.values()).filter(s -> s.rarity() == rarity).toList();
-    return list.get(random.nextInt(list.size()));
+  private int randomIdOfRarity(Rarity rarity) {
+    var ids = IDS_BY_RARITY[rarity.ordinal()];
+    if (ids.length == 0) {
+      throw new IllegalStateException("No item of rarity " + rarity);
+    }
+    return ids[random.nextInt(ids.length)];
   }
 
   /**
    * Generates a complete, random {@code Item} instance by first rolling a rarity
    * and then selecting a corresponding item type.
    *
-   * @return A newly created {@code Item} instance.
+   * @return The shared {@code Item} of the drawn type.
    */
   public Item randomItem() {
-    var rarity = randomRarity(); // 1) tirer une rareté pondérée
-    var stuff = randomStuffOfRarity(rarity); // 2) tirer un item de cette rareté
-    return create(stuff); // 3) créer l’objet final
+    var rarity = randomRarity(); // 1) draw a weighted rarity
+    var id = randomIdOfRarity(rarity); // 2) draw an item of this rarity
+    return CATALOG.item(id); // 3) the shared item of the catalogue
   }
 
   /**
-   * Creates a concrete {@code Item} object based on the provided {@code Stuff}
-   * type.
+   * Returns the {@code Item} of the provided {@code Stuff} type.
+   * <p>
+   * Items are immutable, so every item of the {@link ItemCatalog} is a single
+   * shared prototype, built once when the catalogue is loaded; the state of an
+   * item in a backpack is held by its {@link ItemInstance}.
+   * </p>
    *
    * @param stuff The item type enumeration constant specifying which item to
-   *              create.
-   * @return The newly created concrete {@code Item} object.
+   *              return.
+   * @return The shared concrete {@code Item} object of this type.
    * @throws NullPointerException     if {@code stuff} is {@code null}.
-   * @throws IllegalArgumentException if the {@code Stuff} type is unknown or
-   *                                  improperly handled.
+   * @throws IllegalArgumentException if the catalogue has no item of this type.
    */
   public Item create(Stuff stuff) {
     Objects.requireNonNull(stuff);
-    return switch (stuff) {
-    case WoodSword -> new MeleeWeapon("Wood Sword", List.of(new Position(0, 0), new Position(1, 0), new Position(2, 0)),
-        stuff.rarity(), 7, 1, 10);
-    case MouseBow ->
-      new RangeWeapon("Mouse Bow", List.of(new Position(0, 0), new Position(1, 0)), stuff.rarity(), 1, 12);
-    case ShortArrow -> new Arrow("Short Arrow", List.of(new Position(0, 0)), stuff.rarity(), 10, 3);
-    case LeatherCap -> new Armor("Leather Cap", List.of(new Position(0, 0)), stuff.rarity(), 1, 7);
-    case RoughBuckler -> new Shield("Rough Buckler",
-        List.of(new Position(0, 0), new Position(0, 1), new Position(1, 0), new Position(1, 1)), stuff.rarity(), 7, 1,
-        10);
-    case ElectricWand ->
-      new MagicItem("Electric Wand", List.of(new Position(0, 1), new Position(1, 0)), stuff.rarity(), 5, 1, 13);
-    case CloudSword -> new MeleeWeapon("Cloud Sword",
-        List.of(new Position(0, 0), new Position(1, 0), new Position(2, 0)), stuff.rarity(), 10, 1, 30);
-    case ManaStone -> new ManaStone("Mana Stone", List.of(new Position(0, 0)), stuff.rarity(), 1, 3);
-    case Curse -> new Curse(List.of(new Position(0, 0), new Position(0, 1), new Position(1, 1), new Position(1, 2)));
-    };
+    return CATALOG.item(stuff);
   }
 
   /**
-   * Factory method that creates and returns an {@link Item} based on its string
-   * name.
-   * <p>
-   * This method serves as a central registry for all available items in the game.
-   * It maps specific item names to their corresponding {@link Stuff} definitions
-   * to instantiate the correct object type.
-   * </p>
+   * Returns the {@link Item} of the catalogue with the given name. Curses are
+   * only forced on the hero by enemies, so they cannot be asked for by name.
    *
-   * @param name the unique display name of the item to create.
-   * @return a new {@link Item} instance corresponding to the provided name.
+   * @param name the unique display name of the item.
+   * @return the shared {@link Item} corresponding to the provided name.
    * @throws IllegalArgumentException if the provided name does not match any
-   *                                  known item.
+   *                                  known item, or names a curse.
    * @throws NullPointerException     if the {@code name} argument is
    *                                  {@code null}.
    */
   public Item getItem(String name) {
     Objects.requireNonNull(name);
-    return switch (name) {
-    case "Wood Sword" -> create(Stuff.WoodSword);
-    case "Mouse Bow" -> create(Stuff.MouseBow);
-    case "Short Arrow" -> create(Stuff.ShortArrow);
-    case "Leather Cap" -> create(Stuff.LeatherCap);
-    case "Rough Buckler" -> create(Stuff.RoughBuckler);
-    case "Electric Wand" -> create(Stuff.ElectricWand);
-    case "Cloud Sword" -> create(Stuff.CloudSword);
-    case "Mana Stone" -> create(Stuff.ManaStone);
-    default -> throw new IllegalArgumentException("Nom d'item inconnu : " + name);
-    };
+    int id = CATALOG.find(name);
+    if (id == -1 || CATALOG.item(id).isCurse()) {
+      throw new IllegalArgumentException("Nom d'item inconnu : " + name);
+    }
+    return CATALOG.item(id);
   }
 }
@@ -0,0 +1,68 @@
+package fr.uge.backpackhero.item;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys of backpack layouts. A layout hash is the XOR of one key per
+ * unlocked tile and one key per (item kind, rotation, tile) covered by an item,
+ * so adding or removing a tile or an item updates it in O(shape size).
+ * <p>
+ * Item kinds are identified by name and affixes, which are stable across runs:
+ * the same layout always gets the same hash.
+ * </p>
+ */
+final class Zobrist {
+
+  private static final long[] CELLS = new long[BitGrid.SIZE * BitGrid.SIZE];
+  private static final long[] UNLOCKED = new long[BitGrid.SIZE * BitGrid.SIZE];
+
+  static {
+    var random = new SplittableRandom(0x5EED_BA6L);
+    for (int i = 0; i < CELLS.length; i++) {
+      CELLS[i] = random.nextLong();
+      UNLOCKED[i] = random.nextLong();
+    }
+  }
+
+  private Zobrist() {
+  }
+
+  private static int cellIndex(int row, int column) {
+    return (row + BitGrid.ORIGIN) * BitGrid.SIZE + column + BitGrid.ORIGIN;
+  }
+
+  /** SplitMix64 finalizer. */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * @return the key of an unlocked tile.
+   */
+  static long unlocked(int row, int column) {
+    return UNLOCKED[cellIndex(row, column)];
+  }
+
+  /**
+   * Computes the combined key of an item placed in a backpack. Instances of an
+   * item with different affixes are different kinds.
+   *
+   * @param instance  the placed item
+   * @param placement its placement, encoded with {@link Placements}
+   * @return the XOR of the keys of every tile it covers
+   */
+  static long item(ItemInstance instance, int placement) {
+    var item = instance.getItem();
+    int turns = Placements.quarterTurns(placement);
+    long kind = mix((item.name().hashCode() * 0x9E3779B97F4A7C15L + turns) ^ (long) instance.getAffixes() << 32);
+    int row = Placements.row(placement);
+    int column = Placements.column(placement);
+    long hash = 0L;
+    for (var p : ShapeRegistry.rotations(item.pos())[turns].cells()) {
+      hash ^= mix(kind ^ CELLS[cellIndex(row + p.row(), column + p.column())]);
+    }
+    return hash;
+  }
+}
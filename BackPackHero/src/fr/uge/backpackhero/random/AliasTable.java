@@ -0,0 +1,122 @@
+package fr.uge.backpackhero.random;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Walker alias table: samples an index following fixed weights with one bounded
+ * integer and one double draw, whatever the number of outcomes. The table is
+ * built once in O(n) with Vose's method and is immutable afterwards, so it can
+ * be shared between threads as long as each one uses its own generator.
+ */
+public final class AliasTable {
+  private final double[] probabilities;
+  private final double[] thresholds;
+  private final int[] aliases;
+
+  /**
+   * Builds the table of a discrete distribution.
+   *
+   * @param weights the weight of each outcome, not all zero
+   * @throws IllegalArgumentException if there is no outcome, a weight is
+   *                                  negative or not finite, or all weights are
+   *                                  zero
+   */
+  public AliasTable(double[] weights) {
+    Objects.requireNonNull(weights);
+    int n = weights.length;
+    if (n == 0) {
+      throw new IllegalArgumentException("An alias table needs at least one outcome");
+    }
+    double total = 0;
+    for (double weight : weights) {
+      if (!(weight >= 0) || Double.isInfinite(weight)) {
+        throw new IllegalArgumentException("Invalid weight " + weight);
+      }
+      total += weight;
+    }
+    if (total == 0) {
+      throw new IllegalArgumentException("All weights are zero");
+    }
+    probabilities = new double[n];
+    thresholds = new double[n];
+    aliases = new int[n];
+    var scaled = new double[n];
+    var small = new int[n];
+    var large = new int[n];
+    int smallCount = 0;
+    int largeCount = 0;
+    for (int i = 0; i < n; i++) {
+      probabilities[i] = weights[i] / total;
+      scaled[i] = probabilities[i] * n;
+      if (scaled[i] < 1) {
+        small[smallCount++] = i;
+      } else {
+        large[largeCount++] = i;
+      }
+    }
+    while (smallCount > 0 && largeCount > 0) {
+      int less = small[--smallCount];
+      int more = large[--largeCount];
+      thresholds[less] = scaled[less];
+      aliases[less] = more;
+      scaled[more] = scaled[more] + scaled[less] - 1;
+      if (scaled[more] < 1) {
+        small[smallCount++] = more;
+      } else {
+        large[largeCount++] = more;
+      }
+    }
+    // Leftovers are 1 up to rounding errors.
+    while (largeCount > 0) {
+      int i = large[--largeCount];
+      thresholds[i] = 1;
+      aliases[i] = i;
+    }
+    while (smallCount > 0) {
+      int i = small[--smallCount];
+      thresholds[i] = 1;
+      aliases[i] = i;
+    }
+  }
+
+  /**
+   * @return the number of outcomes.
+   */
+  public int size() {
+    return probabilities.length;
+  }
+
+  /**
+   * @return the probability of an outcome, its weight divided by the total.
+   */
+  public double probability(int index) {
+    Objects.checkIndex(index, probabilities.length);
+    return probabilities[index];
+  }
+
+  /**
+   * Draws an outcome.
+   *
+   * @param random the generator to draw from
+   * @return the index of the outcome
+   */
+  public int sample(SplittableRandom random) {
+    int column = random.nextInt(thresholds.length);
+    return random.nextDouble() < thresholds[column] ? column : aliases[column];
+  }
+
+  /**
+   * Draws an outcome from 64 uniform random bits, without any generator: the
+   * high 32 bits choose the column and the low 32 bits decide between the
+   * column and its alias.
+   *
+   * @param bits uniformly distributed bits, for instance a SplitMix64 output
+   * @return the index of the outcome
+   */
+  public int sample(long bits) {
+    int column = (int) (((bits >>> 32) * thresholds.length) >>> 32);
+    double uniform = (bits & 0xFFFF_FFFFL) * 0x1.0p-32;
+    return uniform < thresholds[column] ? column : aliases[column];
+  }
+}
@@ -0,0 +1,96 @@
+package fr.uge.backpackhero.random;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Single source of randomness of a run. Every subsystem draws from its own
+ * {@link SplittableRandom} stream derived from the run seed, so the numbers a
+ * subsystem sees do not depend on how much the others consumed: with the same
+ * seed and the same inputs, a run is reproduced exactly.
+ * <p>
+ * Each call to {@link #split(Subsystem)} hands out a new independent generator
+ * (one per enemy, per factory, per combat...), so no generator is ever shared
+ * between objects. Instances are not thread-safe; parallel workers each use
+ * their own {@link #forRun(long)}.
+ * </p>
+ */
+public final class RandomStreams {
+
+  /** The parts of the game drawing random numbers. */
+  public enum Subsystem {
+    /** Floor layouts and room contents. */
+    DUNGEON,
+    /** Item drops, treasures and shop stocks. */
+    LOOT,
+    /** Combat outcomes such as the number of rewards. */
+    COMBAT,
+    /** Enemy intents. */
+    ENEMIES,
+    /** Event rooms. */
+    EVENTS
+  }
+
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  private final long seed;
+  private final Map<Subsystem, SplittableRandom> streams = new EnumMap<>(Subsystem.class);
+
+  /**
+   * Creates the streams of a reproducible run.
+   *
+   * @param seed the seed of the run
+   */
+  public RandomStreams(long seed) {
+    this.seed = seed;
+    for (var subsystem : Subsystem.values()) {
+      streams.put(subsystem, new SplittableRandom(mix(seed + (subsystem.ordinal() + 1) * GOLDEN_GAMMA)));
+    }
+  }
+
+  /**
+   * Creates the streams of a run with an unpredictable seed.
+   */
+  public RandomStreams() {
+    this(new SplittableRandom().nextLong());
+  }
+
+  /** SplitMix64 finalizer. */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * @return the seed of the run, to replay it.
+   */
+  public long seed() {
+    return seed;
+  }
+
+  /**
+   * Returns a new generator for one consumer of a subsystem. Consumers created
+   * in the same order get the same generators on every replay.
+   *
+   * @param subsystem the subsystem of the consumer
+   * @return a generator independent from every other one
+   */
+  public SplittableRandom split(Subsystem subsystem) {
+    Objects.requireNonNull(subsystem);
+    return streams.get(subsystem).split();
+  }
+
+  /**
+   * Derives the streams of another run, for instance one simulation trial. The
+   * derived seed only depends on this seed and on {@code run}.
+   *
+   * @param run the index of the run
+   * @return the streams of that run
+   */
+  public RandomStreams forRun(long run) {
+    return new RandomStreams(mix(seed ^ mix(run + GOLDEN_GAMMA)));
+  }
+}
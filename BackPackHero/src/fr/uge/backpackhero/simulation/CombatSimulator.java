@@ -0,0 +1,154 @@
+package fr.uge.backpackhero.simulation;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+import fr.uge.backpackhero.combat.Combat;
+import fr.uge.backpackhero.combat.CombatState;
+import fr.uge.backpackhero.entites.Ennemi;
+import fr.uge.backpackhero.entites.Heros;
+import fr.uge.backpackhero.item.BackPackSnapshot;
+import fr.uge.backpackhero.random.RandomStreams;
+import fr.uge.backpackhero.random.RandomStreams.Subsystem;
+
+/**
+ * Headless Monte Carlo combat runner. Each trial builds a fresh hero with the
+ * given backpack layout and a fresh encounter, then plays a
+ * {@link Combat} to the end with a {@link HeroPolicy}.
+ * <p>
+ * Trials are spread over a {@link ForkJoinPool}. Trial {@code i} draws all its
+ * random numbers from {@code new RandomStreams(seed).forRun(i)}, so the merged
+ * report only depends on the seed, never on the number of threads.
+ * </p>
+ */
+public final class CombatSimulator {
+
+  /** Number of trials below which a task runs them itself instead of forking. */
+  private static final int BATCH_SIZE = 64;
+
+  private final BackPackSnapshot layout;
+  private final Function<RandomStreams, List<Ennemi>> encounter;
+  private final HeroPolicy policy;
+  private final int maxTurns;
+
+  /**
+   * Creates a simulator.
+   *
+   * @param layout    the backpack of the hero; its items are copied for every
+   *                  trial
+   * @param encounter builds the enemies of one trial from the streams of that
+   *                  trial
+   * @param policy    the policy playing the hero, shared by all threads
+   * @param maxTurns  the number of hero turns after which a combat is stopped
+   * @throws NullPointerException     if an argument is {@code null}
+   * @throws IllegalArgumentException if {@code maxTurns <= 0}
+   */
+  public CombatSimulator(BackPackSnapshot layout, Function<RandomStreams, List<Ennemi>> encounter, HeroPolicy policy,
+      int maxTurns) {
+    this.layout = Objects.requireNonNull(layout);
+    this.encounter = Objects.requireNonNull(encounter);
+    this.policy = Objects.requireNonNull(policy);
+    if (maxTurns <= 0) {
+      throw new IllegalArgumentException("The turn limit must be positive");
+    }
+    this.maxTurns = maxTurns;
+  }
+
+  /**
+   * Runs trials on the common pool.
+   *
+   * @see #run(int, long, ForkJoinPool)
+   */
+  public SimulationReport run(int trials, long seed) {
+    return run(trials, seed, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Runs trials in parallel and merges their results.
+   *
+   * @param trials the number of combats to simulate
+   * @param seed   the seed from which every trial derives its streams
+   * @param pool   the pool running the trials
+   * @return the merged report
+   * @throws IllegalArgumentException if {@code trials < 0}
+   */
+  public SimulationReport run(int trials, long seed, ForkJoinPool pool) {
+    Objects.requireNonNull(pool);
+    if (trials < 0) {
+      throw new IllegalArgumentException("The number of trials cannot be negative");
+    }
+    return pool.invoke(new TrialsTask(new RandomStreams(seed), 0, trials));
+  }
+
+  /**
+   * Plays one combat to the end or to the turn limit.
+   *
+   * @param streams the streams of the trial
+   * @return the outcome of the combat
+   */
+  public TrialResult runTrial(RandomStreams streams) {
+    Objects.requireNonNull(streams);
+    var heros = new Heros();
+    heros.getBackpack().restore(layout.copyInstances());
+    var combat = new Combat(heros, encounter.apply(streams), new HeadlessDelegate(policy),
+        streams.split(Subsystem.COMBAT));
+    int turns = 0;
+    while (combat.getState() == CombatState.IN_PROGRESS && turns < maxTurns) {
+      turns++;
+      policy.playTurn(combat, heros);
+      combat.startEnemyTurn();
+    }
+    return new TrialResult(combat.getState(), turns, heros.getPv());
+  }
+
+  /**
+   * Computes the exact outcome the simulation estimates, with an
+   * {@link ExactSolver}, when the encounter is small enough. The encounter must
+   * always build the same enemies, only their intents being random, and the
+   * policy must be deterministic.
+   *
+   * @param maxStates the number of states after which the solver gives up
+   * @return the exact outcome, or an empty optional if there are too many states
+   */
+  public Optional<ExactOutcome> solveExactly(int maxStates) {
+    var streams = new RandomStreams(0);
+    var heros = new Heros();
+    heros.getBackpack().restore(layout.copyInstances());
+    var combat = new Combat(heros, encounter.apply(streams), new HeadlessDelegate(policy),
+        streams.split(Subsystem.COMBAT));
+    return new ExactSolver(policy, maxTurns, maxStates).solveAllIntents(combat);
+  }
+
+  @SuppressWarnings("serial")
+  private final class TrialsTask extends RecursiveTask<SimulationReport> {
+    private final RandomStreams streams;
+    private final int from;
+    private final int to;
+
+    private TrialsTask(RandomStreams streams, int from, int to) {
+      this.streams = streams;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected SimulationReport compute() {
+      if (to - from <= BATCH_SIZE) {
+        var report = SimulationReport.EMPTY;
+        for (int i = from; i < to; i++) {
+          report = report.merge(SimulationReport.of(runTrial(streams.forRun(i))));
+        }
+        return report;
+      }
+      int middle = (from + to) >>> 1;
+      var left = new TrialsTask(streams, from, middle);
+      left.fork();
+      var right = new TrialsTask(streams, middle, to).compute();
+      return left.join().merge(right);
+    }
+  }
+}
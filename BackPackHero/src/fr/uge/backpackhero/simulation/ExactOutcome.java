@@ -0,0 +1,32 @@
+package fr.uge.backpackhero.simulation;
+
+import java.util.Locale;
+
+/**
+ * Exact outcome distribution of a combat under a fixed policy, as computed by
+ * {@link ExactSolver}.
+ *
+ * @param winProbability     the probability that the hero wins
+ * @param timeoutProbability the probability that the turn limit is reached
+ * @param expectedTurns      the expected number of hero turns played
+ * @param expectedHpLeft     the expected hit points of the hero at the end, 0
+ *                           when the hero dies
+ * @param expectedHpLoss     the expected hit points lost during the combat
+ * @param states             the number of distinct states solved
+ */
+public record ExactOutcome(double winProbability, double timeoutProbability, double expectedTurns,
+    double expectedHpLeft, double expectedHpLoss, int states) {
+
+  /**
+   * @return the probability that the hero dies.
+   */
+  public double lossProbability() {
+    return Math.max(0, 1 - winProbability - timeoutProbability);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT, "%d states: win probability %.4f, %.2f turns, %.2f HP left, %.2f HP lost",
+        states, winProbability, expectedTurns, expectedHpLeft, expectedHpLoss);
+  }
+}
@@ -0,0 +1,195 @@
+package fr.uge.backpackhero.simulation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import fr.uge.backpackhero.combat.Combat;
+import fr.uge.backpackhero.combat.CombatState;
+import fr.uge.backpackhero.combat.IntentTable;
+import fr.uge.backpackhero.combat.TableBehavior;
+import fr.uge.backpackhero.entites.Heros;
+
+/**
+ * Computes the exact outcome of a combat played by a deterministic
+ * {@link HeroPolicy}. The only randomness left is then the intents the enemies
+ * draw at the start of each hero turn, so the combat is a finite Markov chain:
+ * the solver plays each turn once per reachable state and weights the
+ * continuations by the probabilities of the {@link IntentTable intent tables}
+ * of the enemies.
+ * <p>
+ * States are memoized by {@link Combat#stateHash()} and turn number, so states
+ * reached by several intent sequences are solved once. The number of states is
+ * capped: when an encounter is too large, the solver gives up and the caller
+ * can fall back to a {@link CombatSimulator}.
+ * </p>
+ */
+public final class ExactSolver {
+  private final HeroPolicy policy;
+  private final int maxTurns;
+  private final int maxStates;
+
+  /**
+   * Creates a solver.
+   *
+   * @param policy    the deterministic policy playing the hero
+   * @param maxTurns  the number of hero turns after which a combat is stopped,
+   *                  as in {@link CombatSimulator}
+   * @param maxStates the number of states after which the solver gives up
+   * @throws IllegalArgumentException if a limit is not positive
+   */
+  public ExactSolver(HeroPolicy policy, int maxTurns, int maxStates) {
+    this.policy = Objects.requireNonNull(policy);
+    if (maxTurns <= 0 || maxStates <= 0) {
+      throw new IllegalArgumentException("Limits must be positive");
+    }
+    this.maxTurns = maxTurns;
+    this.maxStates = maxStates;
+  }
+
+  /**
+   * Solves a combat from its current state, the intents already announced
+   * included. The combat is forked and left unchanged.
+   *
+   * @param combat a combat on the hero turn whose enemies draw their intents
+   *               from a {@link TableBehavior}
+   * @return the exact outcome, or an empty optional if there are too many states
+   * @throws IllegalStateException    if the combat is not on the hero turn
+   * @throws IllegalArgumentException if an enemy has no intent table
+   */
+  public Optional<ExactOutcome> solve(Combat combat) {
+    return solve(combat, false);
+  }
+
+  /**
+   * Solves a combat from its current state, as if the intents of the current
+   * turn were not drawn yet. This is the outcome a {@link CombatSimulator}
+   * estimates for a new combat.
+   *
+   * @see #solve(Combat)
+   */
+  public Optional<ExactOutcome> solveAllIntents(Combat combat) {
+    return solve(combat, true);
+  }
+
+  private Optional<ExactOutcome> solve(Combat combat, boolean allIntents) {
+    Objects.requireNonNull(combat);
+    if (combat.getState() == CombatState.IN_PROGRESS && !combat.isHeroTurn()) {
+      throw new IllegalStateException("The combat must be on the hero turn");
+    }
+    var chain = new Chain(combat.fork(new HeadlessDelegate(policy)));
+    int hpBefore = chain.heros.getPv();
+    Value value;
+    try {
+      value = allIntents ? chain.intents(0) : chain.value(0);
+    } catch (TooManyStates e) {
+      return Optional.empty();
+    }
+    return Optional.of(new ExactOutcome(value.win, value.timeout, value.turns, value.hpLeft, hpBefore - value.hpLeft,
+        chain.memo.size()));
+  }
+
+  /** Moves to the next combination of intents, in odometer order. */
+  private static boolean next(int[] choice, IntentTable[] tables) {
+    for (int i = 0; i < choice.length; i++) {
+      if (++choice[i] < tables[i].size()) {
+        return true;
+      }
+      choice[i] = 0;
+    }
+    return false;
+  }
+
+  /** Expected outcome of a state. */
+  private record Value(double win, double timeout, double turns, double hpLeft) {
+  }
+
+  private record Key(long hash, int turn) {
+  }
+
+  @SuppressWarnings("serial")
+  private static final class TooManyStates extends RuntimeException {
+    private TooManyStates() {
+      super(null, null, false, false);
+    }
+  }
+
+  /** The exploration of one combat, on a fork owned by the solver. */
+  private final class Chain {
+    private final Combat combat;
+    private final Heros heros;
+    private final Map<Key, Value> memo = new HashMap<>();
+
+    private Chain(Combat combat) {
+      this.combat = combat;
+      this.heros = combat.getHeros();
+    }
+
+    /** Value of the combat at the start of a hero turn, intents announced. */
+    private Value value(int turn) {
+      if (combat.getState() != CombatState.IN_PROGRESS || turn == maxTurns) {
+        return leaf(turn);
+      }
+      var key = new Key(combat.stateHash(), turn);
+      var known = memo.get(key);
+      if (known != null) {
+        return known;
+      }
+      if (memo.size() == maxStates) {
+        throw new TooManyStates();
+      }
+      // as in CombatSimulator, the turn is ended even after the last kill, so
+      // the end of turn effects of the hero still apply
+      policy.playTurn(combat, heros);
+      combat.startEnemyTurn();
+      var result = intents(turn + 1);
+      memo.put(key, result);
+      return result;
+    }
+
+    /** Averages the values of every combination of intents of the living enemies. */
+    private Value intents(int turn) {
+      if (combat.getState() != CombatState.IN_PROGRESS) {
+        return leaf(turn);
+      }
+      var enemies = List.copyOf(combat.getAliveEnemies());
+      var tables = new IntentTable[enemies.size()];
+      for (int i = 0; i < tables.length; i++) {
+        if (!(enemies.get(i).getBehavior() instanceof TableBehavior behavior)) {
+          throw new IllegalArgumentException(enemies.get(i).getName() + " has no intent table");
+        }
+        tables[i] = behavior.intents();
+      }
+      var snapshot = combat.snapshot();
+      var choice = new int[tables.length];
+      double win = 0;
+      double timeout = 0;
+      double turns = 0;
+      double hpLeft = 0;
+      do {
+        combat.restore(snapshot);
+        double probability = 1;
+        for (int i = 0; i < tables.length; i++) {
+          enemies.get(i).announce(tables[i].action(choice[i]));
+          probability *= tables[i].probability(choice[i]);
+        }
+        var value = value(turn);
+        win += probability * value.win;
+        timeout += probability * value.timeout;
+        turns += probability * value.turns;
+        hpLeft += probability * value.hpLeft;
+      } while (next(choice, tables));
+      return new Value(win, timeout, turns, hpLeft);
+    }
+
+    private Value leaf(int turn) {
+      return switch (combat.getState()) {
+        case WIN -> new Value(1, 0, turn, heros.getPv());
+        case LOSS -> new Value(0, 0, turn, 0);
+        case IN_PROGRESS -> new Value(0, 1, turn, heros.getPv());
+      };
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package fr.uge.backpackhero.simulation;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+import fr.uge.backpackhero.combat.Combat;
+import fr.uge.backpackhero.combat.CombatState;
+import fr.uge.backpackhero.entites.Ennemi;
+import fr.uge.backpackhero.entites.Heros;
+import fr.uge.backpackhero.item.Arrow;
+import fr.uge.backpackhero.item.ItemInstance;
+import fr.uge.backpackhero.item.RangeWeapon;
+
+/**
+ * Default policy: keeps using the items of the backpack, in backpack order, on
+ * the enemy with the fewest hit points until no item can be used anymore.
+ */
+public final class GreedyPolicy implements HeroPolicy {
+
+  @Override
+  public void playTurn(Combat combat, Heros heros) {
+    Objects.requireNonNull(combat);
+    Objects.requireNonNull(heros);
+    var backpack = heros.getBackpack();
+    boolean acted = true;
+    while (acted && combat.getState() == CombatState.IN_PROGRESS) {
+      acted = false;
+      for (var instance : backpack.getItems()) {
+        var target = weakestEnemy(combat);
+        if (target == null) {
+          return;
+        }
+        // used items may consume others (arrows, mana stones)
+        if (backpack.itemsView().contains(instance) && worthTrying(heros, instance)
+            && combat.tryHeroAction(instance, target)) {
+          acted = true;
+        }
+      }
+    }
+  }
+
+  /** A bow spends its energy even without an arrow to shoot. */
+  private static boolean worthTrying(Heros heros, ItemInstance instance) {
+    return !(instance.getItem() instanceof RangeWeapon)
+        || heros.getBackpack().hasAdjacentItem(instance, Arrow.class);
+  }
+
+  private static Ennemi weakestEnemy(Combat combat) {
+    return combat.getAliveEnemies().stream()
+        .filter(Ennemi::estVivant)
+        .min(Comparator.comparingInt(Ennemi::getHp))
+        .orElse(null);
+  }
+}
@@ -0,0 +1,38 @@
+package fr.uge.backpackhero.simulation;
+
+import java.util.Objects;
+
+import fr.uge.backpackhero.combat.CombatInteractionDelegate;
+import fr.uge.backpackhero.entites.Heros;
+import fr.uge.backpackhero.item.Curse;
+import fr.uge.backpackhero.item.ItemInstance;
+
+/**
+ * Resolves combat interactions without a user interface: curses are placed or
+ * refused as the policy decides, level-up expansions are ignored.
+ */
+final class HeadlessDelegate implements CombatInteractionDelegate {
+  private final HeroPolicy policy;
+
+  HeadlessDelegate(HeroPolicy policy) {
+    this.policy = Objects.requireNonNull(policy);
+  }
+
+  @Override
+  public void handleForcedCurse(Heros heros, Curse curse) {
+    Objects.requireNonNull(heros);
+    Objects.requireNonNull(curse);
+    var instance = new ItemInstance(curse);
+    var placement = policy.placeCurse(heros, instance);
+    if (placement.isPresent() && heros.getBackpack().add(instance, placement.getAsInt())) {
+      heros.acceptCurseImmediate();
+    } else {
+      heros.refuseCurseImmediate();
+    }
+  }
+
+  @Override
+  public void handleLevelUpExpansion(int levelsGained) {
+    // a single combat does not use the unlocked tiles
+  }
+}
@@ -0,0 +1,39 @@
+package fr.uge.backpackhero.simulation;
+
+import fr.uge.backpackhero.entites.Ennemi;
+import fr.uge.backpackhero.item.ItemInstance;
+
+/**
+ * A move of the hero during a combat: use an item on an enemy, or end the turn.
+ *
+ * @param item   the item to use, null to end the turn
+ * @param target the targeted enemy, null to end the turn
+ */
+public record HeroMove(ItemInstance item, Ennemi target) {
+
+  /** The move ending the hero turn. */
+  public static final HeroMove END_TURN = new HeroMove(null, null);
+
+  /**
+   * Checks that the item and the target are either both given or both null.
+   *
+   * @throws IllegalArgumentException if only one of them is null
+   */
+  public HeroMove {
+    if ((item == null) != (target == null)) {
+      throw new IllegalArgumentException("An item needs a target");
+    }
+  }
+
+  /**
+   * @return {@code true} if this move ends the turn.
+   */
+  public boolean endsTurn() {
+    return item == null;
+  }
+
+  @Override
+  public String toString() {
+    return endsTurn() ? "end turn" : item.getName() + " -> " + target.getName();
+  }
+}
@@ -0,0 +1,57 @@
+package fr.uge.backpackhero.simulation;
+
+import java.util.Objects;
+import java.util.OptionalInt;
+
+import fr.uge.backpackhero.combat.Combat;
+import fr.uge.backpackhero.entites.Ennemi;
+import fr.uge.backpackhero.entites.Heros;
+import fr.uge.backpackhero.item.BackPack;
+import fr.uge.backpackhero.item.ItemInstance;
+import fr.uge.backpackhero.item.Placements;
+import fr.uge.backpackhero.item.Position;
+
+/**
+ * Decides what the hero does during a headless combat. A policy may be shared
+ * by the worker threads of a {@link CombatSimulator}, so implementations must
+ * not keep mutable state between calls.
+ */
+public interface HeroPolicy {
+
+  /**
+   * Plays the hero turn: uses items through
+   * {@link Combat#tryHeroAction(ItemInstance, Ennemi)}
+   * until the policy decides to end the turn. The caller then starts the enemy
+   * turn.
+   *
+   * @param combat the running combat, on the hero turn
+   * @param heros  the hero of the combat
+   */
+  void playTurn(Combat combat, Heros heros);
+
+  /**
+   * Chooses where to put a curse imposed by an enemy. By default, the first
+   * placement covering no item is chosen, then the first legal one.
+   *
+   * @param heros the hero receiving the curse
+   * @param curse the curse to place
+   * @return a placement from {@link BackPack#legalPlacements(ItemInstance)},
+   *         or an empty optional to refuse the curse and take damage
+   */
+  default OptionalInt placeCurse(Heros heros, ItemInstance curse) {
+    Objects.requireNonNull(heros);
+    Objects.requireNonNull(curse);
+    var backpack = heros.getBackpack();
+    var placements = backpack.legalPlacements(curse);
+    for (int placement : placements) {
+      int row = Placements.row(placement);
+      int column = Placements.column(placement);
+      boolean covers = curse.getCurrentShape().stream()
+          .anyMatch(p -> !backpack.isAvailable(new Position(row + p.row(), column + p.column())));
+      if (!covers) {
+        return OptionalInt.of(placement);
+      }
+    }
+    return placements.length == 0 ? OptionalInt.empty() : OptionalInt.of(placements[0]);
+  }
+}
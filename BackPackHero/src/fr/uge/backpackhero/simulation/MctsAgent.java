@@ -0,0 +1,388 @@
+package fr.uge.backpackhero.simulation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import fr.uge.backpackhero.combat.Combat;
+import fr.uge.backpackhero.combat.CombatSnapshot;
+import fr.uge.backpackhero.combat.CombatState;
+import fr.uge.backpackhero.entites.Ennemi;
+import fr.uge.backpackhero.entites.Heros;
+import fr.uge.backpackhero.item.ItemInstance;
+
+/**
+ * Combat agent choosing the hero moves with a Monte Carlo Tree Search.
+ * <p>
+ * The search is root-parallel: each worker plays on its own
+ * {@link Combat#fork(fr.uge.backpackhero.combat.CombatInteractionDelegate)
+ * fork} of the combat and grows its own tree, and the visit counts of the root
+ * moves are summed at the end, so the workers share nothing and the number of
+ * iterations per second grows with the number of cores. Every iteration
+ * restores the root {@link CombatSnapshot} and reseeds the combat, so the
+ * enemy intents and the other random events are sampled anew. Nodes are stored
+ * in a transposition table keyed by {@link Combat#stateHash()}: a move leads
+ * to whatever state it produced, which handles the randomness of the enemy
+ * turns and merges the orders of moves reaching the same state. Leaves are
+ * evaluated by a {@link GreedyPolicy} rollout.
+ * </p>
+ * <p>
+ * The agent keeps no state between calls and can be used as a
+ * {@link HeroPolicy} by a {@link CombatSimulator}.
+ * </p>
+ */
+public final class MctsAgent implements HeroPolicy {
+  private static final int END_TURN = -1;
+  /** The largest slot a move can target, moves keeping the low 16 bits for it. */
+  private static final int MAX_ENEMIES = 0xFFFF;
+  private static final double EXPLORATION = 0.7;
+  private static final int MAX_DEPTH = 40;
+  private static final int ROLLOUT_TURNS = 30;
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+  private static final HeroPolicy ROLLOUT = new GreedyPolicy();
+
+  private final int iterations;
+  private final long budgetMillis;
+  private final int workers;
+  private final long seed;
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates an agent searching on the common pool.
+   *
+   * @see #MctsAgent(int, long, int, long, ForkJoinPool)
+   */
+  public MctsAgent(int iterations, long budgetMillis, int workers, long seed) {
+    this(iterations, budgetMillis, workers, seed, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates an agent.
+   *
+   * @param iterations   the maximum number of iterations of a search, shared by
+   *                     the workers
+   * @param budgetMillis the maximum duration of a search, 0 for no limit; a
+   *                     search without time limit is reproducible
+   * @param workers      the number of independent trees searched in parallel
+   * @param seed         the seed of the searches
+   * @param pool         the pool running the workers
+   * @throws IllegalArgumentException if {@code iterations} or {@code workers} is
+   *                                  not positive, or the budget is negative
+   */
+  public MctsAgent(int iterations, long budgetMillis, int workers, long seed, ForkJoinPool pool) {
+    if (iterations <= 0 || workers <= 0 || budgetMillis < 0) {
+      throw new IllegalArgumentException("Invalid search budget");
+    }
+    this.iterations = iterations;
+    this.budgetMillis = budgetMillis;
+    this.workers = workers;
+    this.seed = seed;
+    this.pool = Objects.requireNonNull(pool);
+  }
+
+  /**
+   * Searches the best move of the hero. The combat is only forked, and is left
+   * untouched.
+   *
+   * @param combat a combat on the hero turn
+   * @return the best move found, {@link HeroMove#END_TURN} if the combat is over
+   *         or not on the hero turn
+   * @throws IllegalArgumentException if the combat has more than 65535 enemies
+   */
+  public HeroMove suggest(Combat combat) {
+    Objects.requireNonNull(combat);
+    if (combat.getState() != CombatState.IN_PROGRESS || !combat.isHeroTurn()) {
+      return HeroMove.END_TURN;
+    }
+    var moves = moves(combat);
+    return moves.getOrDefault(bestMove(searches(combat)), HeroMove.END_TURN);
+  }
+
+  /**
+   * Searches the best move of the hero without blocking the caller. The combat
+   * is forked before this method returns, so it can be played again as soon as
+   * the method returns; the move found then refers to the items and enemies the
+   * combat had at the call.
+   *
+   * @param combat a combat on the hero turn
+   * @return a future completed by the best move found, or already completed by
+   *         {@link HeroMove#END_TURN} if the combat is over or not on the hero
+   *         turn
+   * @throws IllegalArgumentException if the combat has more than 65535 enemies
+   */
+  public CompletableFuture<HeroMove> suggestAsync(Combat combat) {
+    Objects.requireNonNull(combat);
+    if (combat.getState() != CombatState.IN_PROGRESS || !combat.isHeroTurn()) {
+      return CompletableFuture.completedFuture(HeroMove.END_TURN);
+    }
+    var moves = moves(combat);
+    var searches = searches(combat);
+    return CompletableFuture.supplyAsync(() -> moves.getOrDefault(bestMove(searches), HeroMove.END_TURN), pool);
+  }
+
+  private List<Search> searches(Combat combat) {
+    long deadline = budgetMillis == 0 ? Long.MAX_VALUE : System.nanoTime() + budgetMillis * 1_000_000;
+    long base = seed ^ combat.stateHash();
+    var delegate = new HeadlessDelegate(ROLLOUT);
+    var searches = new ArrayList<Search>(workers);
+    for (int i = 0; i < workers; i++) {
+      int share = iterations / workers + (i < iterations % workers ? 1 : 0);
+      searches.add(new Search(combat.fork(delegate), share, deadline, base + i * GOLDEN_GAMMA));
+    }
+    return searches;
+  }
+
+  private int bestMove(List<Search> searches) {
+    var visits = new LinkedHashMap<Integer, Integer>();
+    for (var future : pool.invokeAll(searches)) {
+      if (future.state() == Future.State.FAILED) {
+        var cause = future.exceptionNow();
+        throw cause instanceof RuntimeException e ? e : new IllegalStateException(cause);
+      }
+      future.resultNow().addRootVisits(visits);
+    }
+    int best = END_TURN;
+    int bestVisits = 0;
+    for (var entry : visits.entrySet()) {
+      if (entry.getValue() > bestVisits) {
+        best = entry.getKey();
+        bestVisits = entry.getValue();
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Plays the hero turn, searching each move.
+   */
+  @Override
+  public void playTurn(Combat combat, Heros heros) {
+    Objects.requireNonNull(combat);
+    Objects.requireNonNull(heros);
+    while (combat.getState() == CombatState.IN_PROGRESS && combat.isHeroTurn()) {
+      var move = suggest(combat);
+      if (move.endsTurn() || !combat.tryHeroAction(move.item(), move.target())) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Encodes the use of an item on the enemy of a slot. The target is a slot and
+   * not a place in the roster: the roster order changes as enemies die, while
+   * the states reached in different orders share their node.
+   */
+  private static int encode(ItemInstance instance, int slot) {
+    var pos = instance.getPos();
+    return (pos.row() + 64 & 0x7F) << 24 | (pos.column() + 64 & 0xFF) << 16 | slot;
+  }
+
+  private static ItemInstance itemOf(Heros heros, int move) {
+    int row = (move >>> 24) - 64;
+    int column = (move >>> 16 & 0xFF) - 64;
+    for (var instance : heros.getBackpack().itemsView()) {
+      var pos = instance.getPos();
+      if (pos.row() == row && pos.column() == column) {
+        return instance;
+      }
+    }
+    return null;
+  }
+
+  /** The moves of the hero in a combat, by code, read once so a search can decode its result on any thread. */
+  private static Map<Integer, HeroMove> moves(Combat combat) {
+    var enemies = combat.getAliveEnemies();
+    if (enemies.size() > MAX_ENEMIES) {
+      throw new IllegalArgumentException("Too many enemies to search: " + enemies.size());
+    }
+    var moves = new HashMap<Integer, HeroMove>();
+    for (var instance : combat.getHeros().getBackpack().itemsView()) {
+      if (!instance.getItem().isCurse()) {
+        for (int target = 0; target < enemies.size(); target++) {
+          // a fork puts the enemy at this place in the slot that follows it
+          moves.put(encode(instance, target + 1), new HeroMove(instance, enemies.get(target)));
+        }
+      }
+    }
+    return moves;
+  }
+
+
+  /** Moves of a state with their statistics. */
+  private static final class Node {
+    private final long hash;
+    private final int[] moves;
+    private final int[] visits;
+    private final double[] values;
+    private final boolean[] invalid;
+    private int total;
+
+    private Node(long hash, int[] moves) {
+      this.hash = hash;
+      this.moves = moves;
+      this.visits = new int[moves.length];
+      this.values = new double[moves.length];
+      this.invalid = new boolean[moves.length];
+    }
+
+    /** UCB1 over the valid moves, untried moves first. Ending the turn is always valid. */
+    private int select() {
+      int best = -1;
+      double bestScore = Double.NEGATIVE_INFINITY;
+      double logTotal = Math.log(total + 1);
+      for (int i = 0; i < moves.length; i++) {
+        if (invalid[i]) {
+          continue;
+        }
+        if (visits[i] == 0) {
+          return i;
+        }
+        double score = values[i] / visits[i] + EXPLORATION * Math.sqrt(logTotal / visits[i]);
+        if (score > bestScore) {
+          best = i;
+          bestScore = score;
+        }
+      }
+      return best;
+    }
+
+    private void update(int index, double value) {
+      visits[index]++;
+      values[index] += value;
+      total++;
+    }
+  }
+
+  /** One worker: a tree grown on its own fork of the combat. */
+  private static final class Search implements Callable<Search> {
+    private final Combat combat;
+    private final Heros heros;
+    private final CombatSnapshot root;
+    private final int enemyMaxHp;
+    private final Map<Long, Node> table = new HashMap<>();
+    private final Node rootNode;
+    private final SplittableRandom random;
+    private final int iterations;
+    private final long deadline;
+    private final Node[] pathNodes = new Node[MAX_DEPTH];
+    private final int[] pathMoves = new int[MAX_DEPTH];
+
+    private Search(Combat combat, int iterations, long deadline, long seed) {
+      this.combat = combat;
+      this.heros = combat.getHeros();
+      this.root = combat.snapshot();
+      this.enemyMaxHp = combat.getAliveEnemies().stream().mapToInt(Ennemi::getMaxHp).sum();
+      this.rootNode = newNode(combat.stateHash());
+      this.random = new SplittableRandom(seed);
+      this.iterations = iterations;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public Search call() {
+      for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+        iterate();
+      }
+      return this;
+    }
+
+    private void addRootVisits(Map<Integer, Integer> visits) {
+      for (int i = 0; i < rootNode.moves.length; i++) {
+        visits.merge(rootNode.moves[i], rootNode.visits[i], Integer::sum);
+      }
+    }
+
+    private Node newNode(long hash) {
+      var enemies = combat.getAliveEnemies();
+      var moves = new ArrayList<Integer>();
+      for (var instance : heros.getBackpack().itemsView()) {
+        if (!instance.getItem().isCurse()) {
+          for (int i = 0; i < enemies.size(); i++) {
+            moves.add(encode(instance, enemies.get(i).getSlot()));
+          }
+        }
+      }
+      moves.add(END_TURN);
+      var node = new Node(hash, moves.stream().mapToInt(Integer::intValue).toArray());
+      table.put(hash, node);
+      return node;
+    }
+
+    private void iterate() {
+      combat.restore(root);
+      combat.reseed(random.nextLong());
+      var node = rootNode;
+      int depth = 0;
+      double value;
+      while (true) {
+        if (combat.getState() != CombatState.IN_PROGRESS || depth == MAX_DEPTH) {
+          value = evaluate();
+          break;
+        }
+        int index = node.select();
+        int move = node.moves[index];
+        apply(move);
+        long hash = combat.stateHash();
+        if (hash == node.hash && move != END_TURN) {
+          // the item could not be used here
+          node.invalid[index] = true;
+          continue;
+        }
+        pathNodes[depth] = node;
+        pathMoves[depth] = index;
+        depth++;
+        var child = table.get(hash);
+        if (child == null) {
+          newNode(hash);
+          value = rollout();
+          break;
+        }
+        node = child;
+      }
+      for (int i = 0; i < depth; i++) {
+        pathNodes[i].update(pathMoves[i], value);
+      }
+    }
+
+    private void apply(int move) {
+      if (move == END_TURN) {
+        combat.startEnemyTurn();
+        return;
+      }
+      var item = itemOf(heros, move);
+      var target = combat.getAliveEnemy(move & MAX_ENEMIES);
+      if (item != null && target != null) {
+        combat.tryHeroAction(item, target);
+      }
+    }
+
+    private double rollout() {
+      for (int turn = 0; turn < ROLLOUT_TURNS && combat.getState() == CombatState.IN_PROGRESS; turn++) {
+        ROLLOUT.playTurn(combat, heros);
+        combat.startEnemyTurn();
+      }
+      return evaluate();
+    }
+
+    /** Scores a state in [0, 1]: wins above 0.5, losses at 0. */
+    private double evaluate() {
+      double health = (double) heros.getPv() / heros.getPvMax();
+      return switch (combat.getState()) {
+        case WIN -> 0.5 + 0.5 * health;
+        case LOSS -> 0;
+        case IN_PROGRESS -> {
+          int left = combat.getAliveEnemies().stream().mapToInt(Ennemi::getHp).sum();
+          yield 0.25 * health + 0.25 * (1 - (double) left / enemyMaxHp);
+        }
+      };
+    }
+  }
+}
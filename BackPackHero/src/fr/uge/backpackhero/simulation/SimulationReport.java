@@ -0,0 +1,76 @@
+package fr.uge.backpackhero.simulation;
+
+import java.util.Locale;
+import java.util.Objects;
+
+import fr.uge.backpackhero.combat.CombatState;
+
+/**
+ * Aggregated outcome of simulated combats. Reports of disjoint sets of trials
+ * are combined with {@link #merge(SimulationReport)}.
+ *
+ * @param trials      the number of combats
+ * @param wins        the number of combats won by the hero
+ * @param timeouts    the number of combats stopped by the turn limit
+ * @param totalTurns  the sum of the hero turns played
+ * @param totalHpLeft the sum of the hero hit points at the end of each combat
+ */
+public record SimulationReport(int trials, int wins, int timeouts, long totalTurns, long totalHpLeft) {
+
+  /** The report of no combat at all. */
+  public static final SimulationReport EMPTY = new SimulationReport(0, 0, 0, 0, 0);
+
+  /**
+   * @throws IllegalArgumentException if a count is negative or inconsistent
+   */
+  public SimulationReport {
+    if (trials < 0 || wins < 0 || timeouts < 0 || wins + timeouts > trials || totalTurns < 0 || totalHpLeft < 0) {
+      throw new IllegalArgumentException("Invalid report counts");
+    }
+  }
+
+  /**
+   * @return the report of a single combat.
+   */
+  public static SimulationReport of(TrialResult result) {
+    Objects.requireNonNull(result);
+    return new SimulationReport(1, result.outcome() == CombatState.WIN ? 1 : 0,
+        result.outcome() == CombatState.IN_PROGRESS ? 1 : 0, result.turns(), result.hpLeft());
+  }
+
+  /**
+   * @return the report of the trials of both reports.
+   */
+  public SimulationReport merge(SimulationReport other) {
+    Objects.requireNonNull(other);
+    return new SimulationReport(trials + other.trials, wins + other.wins, timeouts + other.timeouts,
+        totalTurns + other.totalTurns, totalHpLeft + other.totalHpLeft);
+  }
+
+  /**
+   * @return the fraction of combats won, 0 if there was none.
+   */
+  public double winRate() {
+    return trials == 0 ? 0 : (double) wins / trials;
+  }
+
+  /**
+   * @return the average number of hero turns per combat.
+   */
+  public double averageTurns() {
+    return trials == 0 ? 0 : (double) totalTurns / trials;
+  }
+
+  /**
+   * @return the average hit points left to the hero at the end of a combat.
+   */
+  public double averageHpLeft() {
+    return trials == 0 ? 0 : (double) totalHpLeft / trials;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT, "%d combats: win rate %.3f, %.2f turns, %.2f HP left, %d timeouts", trials, winRate(),
+        averageTurns(), averageHpLeft(), timeouts);
+  }
+}
@@ -0,0 +1,27 @@
+package fr.uge.backpackhero.simulation;
+
+import java.util.Objects;
+
+import fr.uge.backpackhero.combat.CombatState;
+
+/**
+ * Outcome of one simulated combat.
+ *
+ * @param outcome the final state; {@link CombatState#IN_PROGRESS} if the turn
+ *                limit was reached
+ * @param turns   the number of hero turns played
+ * @param hpLeft  the hit points of the hero at the end
+ */
+public record TrialResult(CombatState outcome, int turns, int hpLeft) {
+
+  /**
+   * @throws NullPointerException     if {@code outcome} is {@code null}
+   * @throws IllegalArgumentException if a count is negative
+   */
+  public TrialResult {
+    Objects.requireNonNull(outcome);
+    if (turns < 0 || hpLeft < 0) {
+      throw new IllegalArgumentException("Turns and hit points cannot be negative");
+    }
+  }
+}